@@ -0,0 +1,75 @@
+package com.sourcegraph.toolchain.bench;
+
+import com.sourcegraph.toolchain.js.antlr4.JavaScriptLexer;
+import com.sourcegraph.toolchain.js.antlr4.JavaScriptParser;
+import com.sourcegraph.toolchain.objc.antlr4.ObjCLexer;
+import com.sourcegraph.toolchain.objc.antlr4.ObjCParser;
+import com.sourcegraph.toolchain.php.antlr4.PHPLexer;
+import com.sourcegraph.toolchain.php.antlr4.PHPParser;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.function.Function;
+
+/**
+ * Grammars being benchmarked
+ */
+public enum Grammar {
+
+    PHP(PHPLexer::new, PHPParser::new, parser -> ((PHPParser) parser).htmlDocument(), ".php"),
+    OBJC(ObjCLexer::new, ObjCParser::new, parser -> ((ObjCParser) parser).translation_unit(), ".h", ".m", ".mm"),
+    JS(JavaScriptLexer::new, JavaScriptParser::new, parser -> ((JavaScriptParser) parser).program(), ".js");
+
+    private final Function<CharStream, Lexer> lexerFactory;
+    private final Function<TokenStream, Parser> parserFactory;
+    private final Function<Parser, ParserRuleContext> rootRule;
+    private final String[] extensions;
+
+    Grammar(Function<CharStream, Lexer> lexerFactory,
+            Function<TokenStream, Parser> parserFactory,
+            Function<Parser, ParserRuleContext> rootRule,
+            String... extensions) {
+        this.lexerFactory = lexerFactory;
+        this.parserFactory = parserFactory;
+        this.rootRule = rootRule;
+        this.extensions = extensions;
+    }
+
+    /**
+     * @return extensions of source files
+     */
+    public String[] getExtensions() {
+        return extensions;
+    }
+
+    /**
+     * @param text source text
+     * @return lexer that does not report errors
+     */
+    public Lexer lexer(String text) {
+        Lexer lexer = lexerFactory.apply(new ANTLRInputStream(text));
+        lexer.removeErrorListeners();
+        return lexer;
+    }
+
+    /**
+     * Parses source text the same way toolchain does by default: SLL prediction first, LL if SLL fails
+     * @param text source text
+     * @return parse tree
+     */
+    public ParserRuleContext parse(String text) {
+        Parser parser = parserFactory.apply(new CommonTokenStream(lexer(text)));
+        parser.removeErrorListeners();
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return rootRule.apply(parser);
+        } catch (ParseCancellationException e) {
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.reset();
+            return rootRule.apply(parser);
+        }
+    }
+}
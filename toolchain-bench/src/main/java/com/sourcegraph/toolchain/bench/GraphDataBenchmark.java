@@ -0,0 +1,61 @@
+package com.sourcegraph.toolchain.bench;
+
+import com.sourcegraph.toolchain.core.GraphData;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion of defs and refs into in-memory graph, including elimination of duplicates
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GraphDataBenchmark {
+
+    /**
+     * Number of definitions, each definition gets several references
+     */
+    @Param({"10000", "100000"})
+    public int size;
+
+    /**
+     * Fraction of duplicate references
+     */
+    @Param({"0.25"})
+    public double duplicates;
+
+    private List<Def> defs;
+    private List<Ref> refs;
+
+    @Setup
+    public void setUp() {
+        defs = new ArrayList<>(size);
+        refs = new ArrayList<>(size * 4);
+        for (int i = 0; i < size; i++) {
+            defs.add(TestGraph.def(i));
+            for (int j = 0; j < 4; j++) {
+                refs.add(TestGraph.ref(i, j));
+            }
+        }
+        int count = (int) (refs.size() * duplicates);
+        for (int i = 0; i < count; i++) {
+            refs.set(refs.size() - 1 - i, TestGraph.ref(i / 4, i % 4));
+        }
+    }
+
+    @Benchmark
+    public GraphData insert() {
+        GraphData data = new GraphData();
+        defs.forEach(data::writeDef);
+        refs.forEach(data::writeRef);
+        return data;
+    }
+}
@@ -0,0 +1,73 @@
+package com.sourcegraph.toolchain.bench;
+
+import com.sourcegraph.toolchain.core.GraphData;
+import com.sourcegraph.toolchain.language.LanguageBase;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse tree listener throughput, single operation walks parse trees of all the sources and collects defs and refs.
+ * Sources are parsed once during setup, subclasses provide language and listener of a given grammar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public abstract class ListenerBenchmarkBase {
+
+    private final Grammar grammar;
+
+    private Map<File, ParseTree> trees;
+
+    protected ListenerBenchmarkBase(Grammar grammar) {
+        this.grammar = grammar;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        trees = Sources.parse(grammar);
+    }
+
+    @Benchmark
+    public GraphData walk() {
+        GraphData data = new GraphData();
+        // language keeps symbol tables and visited files, new instance for each operation
+        LanguageBase language = newLanguage();
+        language.setSourceUnit(Sources.unit(trees.keySet()));
+        language.setGraphWriter(data);
+        language.graph();
+        return data;
+    }
+
+    /**
+     * @return language which parse method calls {@link #walkTree(LanguageBase, File)} instead of parsing source file
+     */
+    protected abstract LanguageBase newLanguage();
+
+    /**
+     * @param language language created by {@link #newLanguage()}
+     * @return listener that emits defs and refs of a given language
+     */
+    protected abstract ParseTreeListener newListener(LanguageBase language);
+
+    /**
+     * Walks already built parse tree of a given file
+     * @param language language being benchmarked
+     * @param sourceFile source file
+     */
+    protected void walkTree(LanguageBase language, File sourceFile) {
+        ParseTree tree = trees.get(sourceFile);
+        if (tree != null) {
+            ParseTreeWalker.DEFAULT.walk(newListener(language), tree);
+        }
+    }
+}
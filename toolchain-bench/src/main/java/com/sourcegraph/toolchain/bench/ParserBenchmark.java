@@ -0,0 +1,49 @@
+package com.sourcegraph.toolchain.bench;
+
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Token;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexer and parser throughput, single operation processes all the sources of a given grammar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"PHP", "OBJC", "JS"})
+    public Grammar grammar;
+
+    private Collection<String> sources;
+
+    @Setup
+    public void setUp() throws IOException {
+        sources = Sources.load(grammar).values();
+    }
+
+    @Benchmark
+    public void lex(Blackhole blackhole) {
+        for (String source : sources) {
+            Lexer lexer = grammar.lexer(source);
+            for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+                blackhole.consume(token);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String source : sources) {
+            blackhole.consume(grammar.parse(source));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sourcegraph.toolchain.bench;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import org.apache.commons.io.output.NullWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of defs and refs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean pretty;
+
+    private Gson gson;
+
+    private Graph graph;
+
+    @Setup
+    public void setUp() {
+        // same configuration as JSONUtil uses
+        GsonBuilder builder = new GsonBuilder().
+                disableHtmlEscaping().
+                registerTypeAdapterFactory(Def.JSONAdapter.FACTORY).
+                registerTypeAdapter(Ref.class, new Ref.JSONAdapter());
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+        gson = builder.create();
+        graph = new Graph();
+        for (int i = 0; i < size; i++) {
+            graph.Defs.add(TestGraph.def(i));
+            for (int j = 0; j < 4; j++) {
+                graph.Refs.add(TestGraph.ref(i, j));
+            }
+        }
+    }
+
+    @Benchmark
+    public void write() {
+        gson.toJson(graph, new NullWriter());
+    }
+
+    private static class Graph {
+        Collection<Def> Defs = new ArrayList<>();
+        Collection<Ref> Refs = new ArrayList<>();
+    }
+}
@@ -0,0 +1,67 @@
+package com.sourcegraph.toolchain.bench;
+
+import com.sourcegraph.toolchain.core.objects.SourceUnit;
+import com.sourcegraph.toolchain.language.ExtensionBasedFileCollector;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Benchmark sources. Sources are collected in directory set by "toolchain.bench.data" system property
+ * (testdata/case by default)
+ */
+public class Sources {
+
+    private static final String DATA_PROPERTY = "toolchain.bench.data";
+
+    /**
+     * @param grammar grammar
+     * @return content of grammar's source files (file => content)
+     * @throws IOException
+     */
+    public static Map<File, String> load(Grammar grammar) throws IOException {
+        File dataDir = new File(System.getProperty(DATA_PROPERTY, "testdata/case")).getAbsoluteFile();
+        Collection<File> files = new ExtensionBasedFileCollector().extension(grammar.getExtensions()).collect(dataDir);
+        if (files.isEmpty()) {
+            throw new IOException("No " + grammar + " sources found in " + dataDir +
+                    ", run git submodule update --init or set -D" + DATA_PROPERTY);
+        }
+        Map<File, String> sources = new LinkedHashMap<>();
+        for (File file : files) {
+            sources.put(file.getAbsoluteFile(), FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        }
+        return sources;
+    }
+
+    /**
+     * @param grammar grammar
+     * @return parse trees of grammar's source files (file => tree)
+     * @throws IOException
+     */
+    public static Map<File, ParseTree> parse(Grammar grammar) throws IOException {
+        Map<File, ParseTree> trees = new LinkedHashMap<>();
+        for (Map.Entry<File, String> source : load(grammar).entrySet()) {
+            trees.put(source.getKey(), grammar.parse(source.getValue()));
+        }
+        return trees;
+    }
+
+    /**
+     * @param files source files
+     * @return source unit made of given files
+     */
+    public static SourceUnit unit(Collection<File> files) {
+        SourceUnit unit = new SourceUnit();
+        unit.Name = "bench";
+        unit.Dir = ".";
+        unit.Files = new ArrayList<>();
+        for (File file : files) {
+            unit.Files.add(file.getPath());
+        }
+        return unit;
+    }
+}
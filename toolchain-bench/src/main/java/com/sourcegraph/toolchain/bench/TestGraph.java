@@ -0,0 +1,46 @@
+package com.sourcegraph.toolchain.bench;
+
+import com.sourcegraph.toolchain.core.FileTable;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+
+/**
+ * Produces synthetic definitions and references
+ */
+class TestGraph {
+
+    /**
+     * @param i definition number
+     * @return definition that looks like PHP method
+     */
+    static Def def(int i) {
+        Def def = new Def();
+        def.defKey = DefKey.of(null, "Vendor/Package/Class" + (i / 10) + "/method" + i);
+        def.name = "method" + i;
+        def.kind = "method";
+        def.file = file(i);
+        def.defStart = i * 100;
+        def.defEnd = i * 100 + 6 + Integer.toString(i).length();
+        def.format("function", "");
+        return def;
+    }
+
+    /**
+     * @param i definition number
+     * @param j reference number
+     * @return reference to a given definition
+     */
+    static Ref ref(int i, int j) {
+        Ref ref = new Ref();
+        ref.defKey = DefKey.of(null, "Vendor/Package/Class" + (i / 10) + "/method" + i);
+        ref.file = file(i + j);
+        ref.start = i * 100 + j * 20 + 50;
+        ref.end = ref.start + 6 + Integer.toString(i).length();
+        return ref;
+    }
+
+    private static int file(int i) {
+        return FileTable.getInstance().intern("src/Vendor/Package/Class" + (i / 10) + ".php");
+    }
+}
@@ -0,0 +1,33 @@
+package com.sourcegraph.toolchain.js;
+
+import com.sourcegraph.toolchain.bench.Grammar;
+import com.sourcegraph.toolchain.bench.ListenerBenchmarkBase;
+import com.sourcegraph.toolchain.language.LanguageBase;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+import java.io.File;
+
+/**
+ * JavaScriptParseTreeListener throughput
+ */
+public class ListenerBenchmark extends ListenerBenchmarkBase {
+
+    public ListenerBenchmark() {
+        super(Grammar.JS);
+    }
+
+    @Override
+    protected LanguageBase newLanguage() {
+        return new LanguageImpl() {
+            @Override
+            protected void parse(File sourceFile) {
+                walkTree(this, sourceFile);
+            }
+        };
+    }
+
+    @Override
+    protected ParseTreeListener newListener(LanguageBase language) {
+        return new JavaScriptParseTreeListener((LanguageImpl) language);
+    }
+}
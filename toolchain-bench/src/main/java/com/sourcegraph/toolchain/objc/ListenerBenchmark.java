@@ -0,0 +1,33 @@
+package com.sourcegraph.toolchain.objc;
+
+import com.sourcegraph.toolchain.bench.Grammar;
+import com.sourcegraph.toolchain.bench.ListenerBenchmarkBase;
+import com.sourcegraph.toolchain.language.LanguageBase;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+import java.io.File;
+
+/**
+ * ObjCParseTreeListener throughput
+ */
+public class ListenerBenchmark extends ListenerBenchmarkBase {
+
+    public ListenerBenchmark() {
+        super(Grammar.OBJC);
+    }
+
+    @Override
+    protected LanguageBase newLanguage() {
+        return new LanguageImpl() {
+            @Override
+            protected void parse(File sourceFile) {
+                walkTree(this, sourceFile);
+            }
+        };
+    }
+
+    @Override
+    protected ParseTreeListener newListener(LanguageBase language) {
+        return new ObjCParseTreeListener((LanguageImpl) language);
+    }
+}
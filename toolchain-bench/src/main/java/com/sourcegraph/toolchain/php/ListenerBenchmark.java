@@ -0,0 +1,33 @@
+package com.sourcegraph.toolchain.php;
+
+import com.sourcegraph.toolchain.bench.Grammar;
+import com.sourcegraph.toolchain.bench.ListenerBenchmarkBase;
+import com.sourcegraph.toolchain.language.LanguageBase;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+import java.io.File;
+
+/**
+ * PHPParseTreeListener throughput
+ */
+public class ListenerBenchmark extends ListenerBenchmarkBase {
+
+    public ListenerBenchmark() {
+        super(Grammar.PHP);
+    }
+
+    @Override
+    protected LanguageBase newLanguage() {
+        return new LanguageImpl() {
+            @Override
+            protected void parse(File sourceFile) {
+                walkTree(this, sourceFile);
+            }
+        };
+    }
+
+    @Override
+    protected ParseTreeListener newListener(LanguageBase language) {
+        return new PHPParseTreeListener((LanguageImpl) language);
+    }
+}
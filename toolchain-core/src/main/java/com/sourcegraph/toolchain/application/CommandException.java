@@ -0,0 +1,15 @@
+package com.sourcegraph.toolchain.application;
+
+/**
+ * Signals that command failed. Error details are expected to be logged before throwing,
+ * Main translates it to non-zero exit code
+ */
+class CommandException extends RuntimeException {
+
+    CommandException() {
+    }
+
+    CommandException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,43 @@
+package com.sourcegraph.toolchain.application;
+
+import com.beust.jcommander.Parameter;
+import com.sourcegraph.toolchain.core.BinaryGraphReader;
+import com.sourcegraph.toolchain.core.JSONUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Converts graph produced in binary format to JSON, the same JSON graph command produces by default
+ */
+class ConvertCommand {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConvertCommand.class);
+
+    @Parameter(names = {"--input"}, description = "Binary graph file to convert, standard input by default")
+    String input;
+
+    @Parameter(names = {"--compact"}, description = "Produce compact JSON instead of pretty-printed one")
+    boolean compact;
+
+    /**
+     * Main method
+     */
+    public void Execute() {
+        try (InputStream in = new BufferedInputStream(StringUtils.isEmpty(input) ?
+                System.in :
+                Files.newInputStream(Paths.get(input)));
+             BinaryGraphReader reader = new BinaryGraphReader(in)) {
+            Writer writer = JSONUtil.newOutputWriter();
+            reader.writeJSON(writer, !compact);
+            writer.flush();
+        } catch (IOException e) {
+            LOGGER.error("Failed to convert binary graph", e);
+            throw new CommandException(e);
+        }
+    }
+}
@@ -2,106 +2,526 @@ package com.sourcegraph.toolchain.application;
 
 import com.beust.jcommander.Parameter;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.sourcegraph.toolchain.core.BinaryGraphWriter;
+import com.sourcegraph.toolchain.core.FileTable;
+import com.sourcegraph.toolchain.core.GraphCache;
 import com.sourcegraph.toolchain.core.GraphData;
+import com.sourcegraph.toolchain.core.GraphWriter;
 import com.sourcegraph.toolchain.core.JSONUtil;
+import com.sourcegraph.toolchain.core.Metrics;
+import com.sourcegraph.toolchain.core.ProgressReporter;
+import com.sourcegraph.toolchain.core.RefTable;
+import com.sourcegraph.toolchain.core.ShardGraphWriter;
+import com.sourcegraph.toolchain.core.SpillingGraphWriter;
+import com.sourcegraph.toolchain.core.StreamingGraphWriter;
 import com.sourcegraph.toolchain.core.objects.Def;
 import com.sourcegraph.toolchain.core.objects.DefKey;
 import com.sourcegraph.toolchain.core.objects.Ref;
 import com.sourcegraph.toolchain.core.objects.SourceUnit;
+import com.sourcegraph.toolchain.core.objects.SymbolTable;
+import com.sourcegraph.toolchain.language.DFACacheManager;
+import com.sourcegraph.toolchain.language.GrammarProfiler;
 import com.sourcegraph.toolchain.language.Language;
 import com.sourcegraph.toolchain.language.LanguageRegistry;
+import com.sourcegraph.toolchain.language.ParseBudget;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class GraphCommand {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphCommand.class);
 
+    private static final long KILOBYTE = 1L << 10;
+    private static final long MEGABYTE = 1L << 20;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private static final String FORMAT_JSON = "json";
+    private static final String FORMAT_BINARY = "binary";
+
+    private static final int BINARY_BUFFER_SIZE = 1 << 16;
+
     @Parameter(names = {"--debug-unit-file"}, description = "The path to a source unit input file, which will be read as though it came from stdin. Used to mimic stdin when you can't actually pipe to stdin (e.g., in IntelliJ run configurations).")
     String debugUnitFile;
 
+    @Parameter(names = {"--workers"}, description = "Number of worker threads to graph source unit files with")
+    int workers = 1;
+
+    @Parameter(names = {"--streaming"}, description = "Stream defs and refs to output as they are produced instead of collecting whole graph in memory. Keys of written defs are still kept in memory to detect redefinitions, so memory grows with the number of defs; use --spill-threshold to bound it")
+    boolean streaming;
+
+    @Parameter(names = {"--format"}, description = "Output format, json or binary. Binary graph may be converted to JSON with convert command")
+    String format = FORMAT_JSON;
+
+    @Parameter(names = {"--compact"}, description = "Produce compact JSON instead of pretty-printed one")
+    boolean compact;
+
+    @Parameter(names = {"--cache-dir"}, description = "Directory to keep graph cache in. When set, unchanged files are replayed from cache instead of being parsed")
+    String cacheDir;
+
+    @Parameter(names = {"--ll-only"}, description = "Parse files with full LL prediction only, without trying faster SLL prediction first")
+    boolean llOnly;
+
+    @Parameter(names = {"--dfa-max-states"}, description = "Maximum number of ANTLR DFA states to keep, DFA cache is cleared when exceeded. 0 means no limit")
+    int dfaMaxStates;
+
+    @Parameter(names = {"--dfa-heap-ratio"}, description = "Fraction of maximum old generation size, ANTLR DFA and prediction context caches are cleared when old generation usage after garbage collection exceeds it")
+    double dfaHeapRatio = 0.9;
+
+    @Parameter(names = {"--metrics"}, description = "File to write per-file, per-phase timing and allocation report to")
+    String metricsFile;
+
+    @Parameter(names = {"--metrics-top"}, description = "Number of slowest files to include in metrics report")
+    int metricsTop = 20;
+
+    @Parameter(names = {"--spill-threshold"}, description = "Approximate size (in megabytes) of defs and refs to keep in memory, sorted runs are spilled to temporary files when exceeded. 0 means keep whole graph in memory")
+    int spillThreshold;
+
+    @Parameter(names = {"--spill-dir"}, description = "Directory to spill sorted runs of defs and refs to, system temporary directory by default")
+    String spillDir;
+
+    @Parameter(names = {"--parse-timeout"}, description = "Maximum time (in seconds) to lex and parse single file, files that take longer are skipped. 0 means no limit")
+    int parseTimeout = 300;
+
+    @Parameter(names = {"--max-tokens"}, description = "Maximum number of tokens in single file, files that have more are skipped. 0 means no limit")
+    int maxTokens;
+
+    @Parameter(names = {"--max-file-size"}, description = "Maximum size (in kilobytes) of single file, larger files are skipped. 0 means no limit")
+    int maxFileSize;
+
+    @Parameter(names = {"--max-errors"}, description = "Maximum number of syntax errors in single file, parsing of file is interrupted when exceeded. 0 means no limit")
+    int maxErrors = 100;
+
+    @Parameter(names = {"--skip-partial-results"}, description = "Skip file when its parsing was interrupted because of too many syntax errors instead of keeping defs and refs found before interruption")
+    boolean skipPartialResults;
+
+    @Parameter(names = {"--skipped-report"}, description = "File to write list of files skipped because they went over parse budget to")
+    String skippedReportFile;
+
+    @Parameter(names = {"--profile-grammar"}, description = "File to write grammar decision profile to: per-rule and per-decision invocation counts, lookahead depth, SLL to LL fallbacks and prediction time. Profiling slows parsing down")
+    String grammarProfileFile;
+
+    @Parameter(names = {"--processes"}, description = "Number of worker processes to graph source unit with. When greater than 1, unit files are split into shards graphed by child JVMs and their partial graphs are merged")
+    int processes = 1;
+
+    @Parameter(names = {"--worker-jvm-args"}, description = "Arguments of worker process JVMs separated by spaces, for example memory settings \"-Xmx4g -Xss8m\"")
+    String workerJvmArgs;
+
+    @Parameter(names = {"--shard-dir"}, description = "Directory to write partial graph to instead of producing output, used by worker processes")
+    String shardDir;
+
+    @Parameter(names = {"--progress-interval"}, description = "Interval (in seconds) between graphing progress summaries: files, bytes, defs and refs done so far, rate and estimated time remaining. 0 disables summaries")
+    int progressInterval = 10;
+
+    @Parameter(names = {"--log-files"}, description = "Log each file being processed")
+    boolean logFiles;
+
+    @Parameter(names = {"--batch"}, description = "Read stream of source unit JSON documents and graph them one by one in the same process, graph of each unit is written to <output-dir>/<unit name>.<unit type>.graph.json (.graph.bin for binary format)")
+    boolean batch;
+
+    @Parameter(names = {"--output-dir"}, description = "Directory to write graphs of source units to in batch mode")
+    String outputDir;
+
+    @Parameter(names = {"--warmup-dir"}, description = "Directory with sample sources to parse before graphing in order to warm up ANTLR DFA cache")
+    String warmupDir;
+
     /**
      * The Source Unit that is read in from STDIN. Defined here, so that it can be
      * accessed within the anonymous classes below.
      */
     public static SourceUnit unit;
 
+    /**
+     * Types of source units language of which was already warmed up, languages share DFA between instances
+     */
+    private final Set<String> warmedUp = new HashSet<>();
+
     /**
      * Main method
      */
     @SuppressWarnings("unchecked")
     public void Execute() {
 
-        try {
-            Reader r;
-            if (!StringUtils.isEmpty(debugUnitFile)) {
-                LOGGER.debug("Reading source unit JSON data from {}", debugUnitFile);
-                r = Files.newBufferedReader(FileSystems.getDefault().getPath(debugUnitFile));
-            } else {
-                r = new InputStreamReader(System.in);
+        boolean binary = FORMAT_BINARY.equals(format);
+        if (!binary && !FORMAT_JSON.equals(format)) {
+            LOGGER.error("Unknown output format {}", format);
+            throw new CommandException();
+        }
+        if (binary && (streaming || spillThreshold > 0)) {
+            LOGGER.error("Binary output format requires whole graph to be collected in memory");
+            throw new CommandException();
+        }
+        boolean worker = !StringUtils.isEmpty(shardDir);
+        if (worker && processes > 1) {
+            LOGGER.error("Worker process can't start worker processes");
+            throw new CommandException();
+        }
+        boolean profiling = !StringUtils.isEmpty(grammarProfileFile);
+        if (profiling && processes > 1) {
+            LOGGER.error("Grammar profiling requires graphing in a single process");
+            throw new CommandException();
+        }
+        if (batch && (worker || processes > 1)) {
+            LOGGER.error("Batch mode graphs source units in a single process");
+            throw new CommandException();
+        }
+        if (batch && StringUtils.isEmpty(outputDir)) {
+            LOGGER.error("Batch mode requires output directory");
+            throw new CommandException();
+        }
+
+        Metrics metrics = StringUtils.isEmpty(metricsFile) ? Metrics.DISABLED : new Metrics(metricsTop);
+        GrammarProfiler profiler = profiling ? new GrammarProfiler() : null;
+        ProgressReporter progress = new ProgressReporter(progressInterval * MILLIS_PER_SECOND, logFiles);
+        Map<String, String> skipped = new TreeMap<>();
+
+        if (batch) {
+            graphBatch(metrics, profiler, progress, skipped);
+        } else {
+            try (Reader r = newInputReader()) {
+                unit = new Gson().fromJson(r, SourceUnit.class);
+            } catch (IOException e) {
+                LOGGER.error("Failed to read source unit data", e);
+                throw new CommandException(e);
+            }
+            graph(unit, metrics, profiler, progress, skipped);
+        }
+
+        if (!StringUtils.isEmpty(skippedReportFile)) {
+            try (Writer w = Files.newBufferedWriter(new File(skippedReportFile).toPath(), StandardCharsets.UTF_8)) {
+                new GsonBuilder().setPrettyPrinting().create().toJson(skipped, w);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write skipped files report to {}", skippedReportFile, e);
+            }
+        }
+
+        if (profiler != null) {
+            try {
+                profiler.write(new File(grammarProfileFile));
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write grammar profile to {}", grammarProfileFile, e);
+            }
+        }
+
+        if (metrics.isEnabled()) {
+            try {
+                metrics.write(new File(metricsFile));
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write metrics report to {}", metricsFile, e);
+            }
+        }
+    }
+
+    /**
+     * @return reader of source unit JSON data, standard input unless debug unit file is set
+     * @throws IOException
+     */
+    private Reader newInputReader() throws IOException {
+        if (!StringUtils.isEmpty(debugUnitFile)) {
+            LOGGER.debug("Reading source unit JSON data from {}", debugUnitFile);
+            return Files.newBufferedReader(FileSystems.getDefault().getPath(debugUnitFile));
+        }
+        return new InputStreamReader(System.in);
+    }
+
+    /**
+     * Reads stream of source units and graphs them one by one, graph of each unit is written to its own file
+     * in output directory. Each unit gets fresh language instance and symbols, while ANTLR DFA stays warm.
+     * Units that failed to graph do not stop the batch
+     * @param metrics metrics to record phase timings to
+     * @param profiler profiler to add grammar decision profiles to, may be null
+     * @param progress reporter to report graphing progress to
+     * @param skipped map to add files that went over parse budget to
+     */
+    private void graphBatch(Metrics metrics,
+                            GrammarProfiler profiler,
+                            ProgressReporter progress,
+                            Map<String, String> skipped) {
+        File dir = new File(outputDir);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            LOGGER.error("Failed to create output directory {}", dir);
+            throw new CommandException();
+        }
+        Set<String> outputs = new HashSet<>();
+        int units = 0;
+        int failures = 0;
+        try (Reader r = newInputReader()) {
+            JsonReader reader = new JsonReader(r);
+            // source unit documents follow each other
+            reader.setLenient(true);
+            Gson gson = new Gson();
+            while (reader.peek() != JsonToken.END_DOCUMENT) {
+                unit = gson.fromJson(reader, SourceUnit.class);
+                units++;
+                File output = getOutputFile(dir, unit, outputs);
+
+                // fresh language instances and symbols for each unit, shared DFA stays warm
+                LanguageRegistry.reset();
+                SymbolTable.getInstance().clear();
+                FileTable.getInstance().clear();
+
+                PrintStream stdout = System.out;
+                try (PrintStream out = new PrintStream(
+                        new BufferedOutputStream(new FileOutputStream(output), BINARY_BUFFER_SIZE),
+                        false,
+                        StandardCharsets.UTF_8.name())) {
+                    System.setOut(out);
+                    graph(unit, metrics, profiler, progress, skipped);
+                    LOGGER.info("Graph of {} unit {} written to {}", unit.Type, unit.Name, output);
+                } catch (CommandException | IOException e) {
+                    failures++;
+                    LOGGER.error("Failed to graph {} unit {}", unit.Type, unit.Name, e);
+                    FileUtils.deleteQuietly(output);
+                } finally {
+                    System.setOut(stdout);
+                }
             }
-            unit = new Gson().fromJson(r, SourceUnit.class);
-            r.close();
-        } catch (IOException e) {
+        } catch (IOException | JsonParseException e) {
             LOGGER.error("Failed to read source unit data", e);
-            System.exit(1);
+            throw new CommandException(e);
         }
-        LOGGER.info("Building graph for {} unit {}", unit.Type, unit.Name);
+        LOGGER.info("Graphed {} source units, {} failed", units, failures);
+        if (failures > 0) {
+            throw new CommandException();
+        }
+    }
+
+    /**
+     * @param dir output directory
+     * @param unit source unit
+     * @param outputs names of output files already taken by preceding units
+     * @return file to write graph of a given unit to, named after unit name and type
+     */
+    private File getOutputFile(File dir, SourceUnit unit, Set<String> outputs) {
+        String name = StringUtils.strip(String.valueOf(unit.Name).replaceAll("[^\\w.-]+", "_"), "._");
+        String base = (StringUtils.isEmpty(name) ? "unit" : name) + '.' + unit.Type;
+        String extension = FORMAT_BINARY.equals(format) ? ".graph.bin" : ".graph.json";
+        String fileName = base + extension;
+        for (int i = 2; !outputs.add(fileName); i++) {
+            fileName = base + '-' + i + extension;
+        }
+        return new File(dir, fileName);
+    }
 
-        GraphData writer = new GraphData();
+    /**
+     * Graphs single source unit and writes graph to standard output
+     * @param unit source unit to graph
+     * @param metrics metrics to record phase timings to
+     * @param profiler profiler to add grammar decision profiles to, may be null
+     * @param progress reporter to report graphing progress to
+     * @param skipped map to add files that went over parse budget to
+     */
+    private void graph(SourceUnit unit,
+                       Metrics metrics,
+                       GrammarProfiler profiler,
+                       ProgressReporter progress,
+                       Map<String, String> skipped) {
+        LOGGER.info("Building graph for {} unit {}", unit.Type, unit.Name);
 
         Language language = LanguageRegistry.getInstance().get(unit.Type);
         if (language == null) {
             LOGGER.error("Found no support for {}", unit.Type);
-            System.exit(1);
+            throw new CommandException();
+        }
+
+        boolean binary = FORMAT_BINARY.equals(format);
+        boolean worker = !StringUtils.isEmpty(shardDir);
+        GraphCoordinator coordinator = processes > 1 ?
+                new GraphCoordinator(unit, processes, getWorkerJVMArguments(), getWorkerArguments()) :
+                null;
+
+        GraphWriter writer = null;
+        if (worker) {
+            try {
+                writer = new ShardGraphWriter(new File(shardDir));
+            } catch (IOException e) {
+                LOGGER.error("Failed to initialize graph writer", e);
+                throw new CommandException(e);
+            }
+        } else if (streaming) {
+            try {
+                writer = new StreamingGraphWriter(language, JSONUtil.newOutputWriter(), metrics);
+            } catch (IOException e) {
+                LOGGER.error("Failed to initialize graph writer", e);
+                throw new CommandException(e);
+            }
+        } else if (spillThreshold > 0) {
+            writer = new SpillingGraphWriter(language,
+                    JSONUtil.newOutputWriter(),
+                    metrics,
+                    spillThreshold * MEGABYTE,
+                    StringUtils.isEmpty(spillDir) ? null : new File(spillDir));
+        } else {
+            writer = new GraphData();
         }
 
         try {
             LOGGER.debug("Starting graph collection");
             language.setSourceUnit(unit);
             language.setGraphWriter(writer);
-            language.graph();
+            language.setWorkers(workers);
+            language.setTwoStageParsing(!llOnly);
+            language.setMetrics(metrics);
+            language.setProgressReporter(progress);
+            language.setParseBudget(new ParseBudget(parseTimeout * MILLIS_PER_SECOND,
+                    maxTokens,
+                    maxFileSize * KILOBYTE,
+                    maxErrors,
+                    !skipPartialResults));
+            DFACacheManager.getInstance().setMaxStates(dfaMaxStates);
+            DFACacheManager.getInstance().setMaxHeapRatio(dfaHeapRatio);
+            if (coordinator != null) {
+                coordinator.graph(language, writer);
+            } else {
+                if (!StringUtils.isEmpty(warmupDir) && warmedUp.add(unit.Type)) {
+                    language.warmUp(new File(warmupDir));
+                }
+                if (!StringUtils.isEmpty(cacheDir)) {
+                    language.setGraphCache(new GraphCache(new File(cacheDir), Main.getVersion()));
+                }
+                language.setCollectingSymbols(worker);
+                // warm-up files are not profiled
+                language.setGrammarProfiler(profiler);
+                language.graph();
+            }
             LOGGER.debug("Graph collection complete");
             writer.flush();
+            if (worker) {
+                ((ShardGraphWriter) writer).writeSymbols(language.getCollectedSymbols());
+            }
+        } catch (CommandException e) {
+            throw e;
         } catch (Exception e) {
             LOGGER.error("Unexpected error occurred while building graph", e);
-            System.exit(1);
+            throw new CommandException(e);
+        }
+
+        if (writer instanceof GraphData) {
+            Graph graph = normalize(language, (GraphData) writer, metrics);
+            try (Metrics.Timer ignored = metrics.start(Metrics.Phase.SERIALIZE)) {
+                if (binary) {
+                    OutputStream out = new BufferedOutputStream(System.out, BINARY_BUFFER_SIZE);
+                    new BinaryGraphWriter(out).write(graph.Defs, graph.Refs);
+                } else {
+                    JSONUtil.writeJSON(graph, !compact);
+                }
+            } catch (IOException e) {
+                LOGGER.error("Failed to write graph", e);
+                throw new CommandException(e);
+            }
         }
 
-        JSONUtil.writeJSON(normalize(language, writer));
+        skipped.putAll(coordinator != null ? coordinator.getSkippedFiles() : language.getSkippedFiles());
     }
 
-    private Graph normalize(Language language, GraphData data) {
+    /**
+     * @return JVM arguments of worker processes
+     */
+    private List<String> getWorkerJVMArguments() {
+        List<String> args = new ArrayList<>();
+        if (!StringUtils.isBlank(workerJvmArgs)) {
+            Collections.addAll(args, StringUtils.split(workerJvmArgs));
+        }
+        return args;
+    }
+
+    /**
+     * @return graph command arguments of worker processes, workers graph files the same way current process would
+     */
+    private List<String> getWorkerArguments() {
+        List<String> args = new ArrayList<>();
+        args.add("--workers");
+        args.add(String.valueOf(workers));
+        if (llOnly) {
+            args.add("--ll-only");
+        }
+        args.add("--dfa-max-states");
+        args.add(String.valueOf(dfaMaxStates));
+        args.add("--dfa-heap-ratio");
+        args.add(String.valueOf(dfaHeapRatio));
+        args.add("--parse-timeout");
+        args.add(String.valueOf(parseTimeout));
+        args.add("--max-tokens");
+        args.add(String.valueOf(maxTokens));
+        args.add("--max-file-size");
+        args.add(String.valueOf(maxFileSize));
+        args.add("--max-errors");
+        args.add(String.valueOf(maxErrors));
+        if (skipPartialResults) {
+            args.add("--skip-partial-results");
+        }
+        args.add("--progress-interval");
+        args.add(String.valueOf(progressInterval));
+        if (logFiles) {
+            args.add("--log-files");
+        }
+        if (!StringUtils.isEmpty(cacheDir)) {
+            args.add("--cache-dir");
+            args.add(cacheDir);
+        }
+        if (!StringUtils.isEmpty(warmupDir)) {
+            args.add("--warmup-dir");
+            args.add(warmupDir);
+        }
+        return args;
+    }
+
+    private Graph normalize(Language language, GraphData data, Metrics metrics) {
 
-        Map<DefKey, DefKey> resolutions = new HashMap<>();
         Graph g = new Graph();
         g.Defs = data.getDefs();
-        Collection<Ref> refs = data.getRefs();
-        for (Ref ref : refs) {
-            if (ref.candidate) {
-                DefKey adjusted = resolutions.get(ref.defKey);
+        RefTable refs = data.getRefTable();
+        Set<DefKey> candidates = new HashSet<>();
+        for (int row = 0; row < refs.rows(); row++) {
+            if (!refs.isRemoved(row) && refs.isCandidate(row)) {
+                candidates.add(refs.getDefKey(row));
+            }
+        }
+        if (!candidates.isEmpty()) {
+            long start = System.nanoTime();
+            Map<DefKey, DefKey> resolutions = language.resolveAll(candidates);
+            metrics.record(null, Metrics.Phase.RESOLVE, System.nanoTime() - start);
+            for (int row = 0; row < refs.rows(); row++) {
+                if (refs.isRemoved(row) || !refs.isCandidate(row)) {
+                    continue;
+                }
+                DefKey adjusted = resolutions.get(refs.getDefKey(row));
                 if (adjusted == null) {
-                    adjusted = language.resolve(ref.defKey);
-                    if (adjusted == null) {
-                        continue;
-                    }
-                    resolutions.put(ref.defKey, adjusted);
+                    refs.remove(row);
+                } else {
+                    refs.setDefKey(row, adjusted);
                 }
-                ref.defKey = adjusted;
             }
-            g.Refs.add(ref);
         }
+        // reference objects are made while graph is being written
+        g.Refs = data.getRefs();
         return g;
     }
 
@@ -0,0 +1,220 @@
+package com.sourcegraph.toolchain.application;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.sourcegraph.toolchain.core.GraphWriter;
+import com.sourcegraph.toolchain.core.ShardGraphWriter;
+import com.sourcegraph.toolchain.core.objects.SourceUnit;
+import com.sourcegraph.toolchain.language.Language;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Graphs source unit that is too large for a single JVM heap using a pool of worker processes. Unit files are split
+ * into shards of about the same total size, each shard is graphed by a child JVM running graph command of the same
+ * jar that writes partial graph (see {@link ShardGraphWriter}) instead of regular output. When all workers are done,
+ * symbols collected by workers are imported into coordinator's language, so that candidate references made
+ * by one shard to definitions made by another one are resolved, and partial graphs are merged into coordinator's
+ * graph writer
+ */
+class GraphCoordinator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphCoordinator.class);
+
+    private static final String UNIT_FILE = "unit.json";
+    private static final String SKIPPED_FILE = "skipped.json";
+    private static final String OUTPUT_FILE = "output.log";
+
+    private final SourceUnit unit;
+
+    private final int processes;
+
+    private final List<String> jvmArgs;
+
+    private final List<String> graphArgs;
+
+    /**
+     * Files skipped by workers because they went over parse budget (path relative to CWD => reason)
+     */
+    private final Map<String, String> skipped = new TreeMap<>();
+
+    /**
+     * @param unit source unit to graph
+     * @param processes number of worker processes
+     * @param jvmArgs arguments of worker JVMs (for example, memory settings)
+     * @param graphArgs arguments of workers' graph command
+     */
+    GraphCoordinator(SourceUnit unit, int processes, List<String> jvmArgs, List<String> graphArgs) {
+        this.unit = unit;
+        this.processes = processes;
+        this.jvmArgs = jvmArgs;
+        this.graphArgs = graphArgs;
+    }
+
+    /**
+     * Graphs source unit with worker processes and writes merged graph
+     * @param language language to resolve candidate references with
+     * @param writer graph writer to write merged graph to, caller is expected to flush it
+     * @throws IOException
+     * @throws CommandException if one of workers failed
+     */
+    void graph(Language language, GraphWriter writer) throws IOException {
+        List<List<String>> shards = split();
+        File workDir = Files.createTempDirectory("srclib-shards").toFile();
+        try {
+            List<File> shardDirs = new ArrayList<>(shards.size());
+            List<Process> workers = new ArrayList<>(shards.size());
+            try {
+                for (int i = 0; i < shards.size(); i++) {
+                    File shardDir = new File(workDir, String.valueOf(i));
+                    if (!shardDir.mkdir()) {
+                        throw new IOException("Unable to create " + shardDir);
+                    }
+                    shardDirs.add(shardDir);
+                    workers.add(start(shards.get(i), shardDir));
+                }
+                LOGGER.info("Graphing {} files using {} worker processes", unit.Files.size(), workers.size());
+                for (int i = 0; i < workers.size(); i++) {
+                    int exitCode = workers.get(i).waitFor();
+                    if (exitCode != 0) {
+                        // worker's log went to inherited standard error, work directory is removed below
+                        LOGGER.error("Graphing worker {} failed with exit code {}", i, exitCode);
+                        throw new CommandException();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CommandException(e);
+            } finally {
+                workers.forEach(Process::destroy);
+            }
+
+            // all symbols should be known before any candidate reference is resolved
+            for (File shardDir : shardDirs) {
+                language.importSymbols(ShardGraphWriter.readSymbols(shardDir));
+            }
+            for (File shardDir : shardDirs) {
+                ShardGraphWriter.replay(shardDir, writer);
+                readSkipped(shardDir);
+            }
+        } finally {
+            FileUtils.deleteQuietly(workDir);
+        }
+    }
+
+    /**
+     * @return files skipped by workers because they went over parse budget (path relative to CWD => reason)
+     */
+    Map<String, String> getSkippedFiles() {
+        return skipped;
+    }
+
+    /**
+     * Splits unit files into shards, larger files are distributed first, each file goes to a shard of
+     * smallest total size so far
+     * @return non-empty shards
+     */
+    private List<List<String>> split() {
+        int count = Math.max(1, Math.min(processes, unit.Files.size()));
+        List<String> files = new ArrayList<>(unit.Files);
+        Map<String, Long> sizes = new HashMap<>();
+        for (String file : files) {
+            sizes.put(file, new File(file).length());
+        }
+        files.sort(Comparator.comparing((String file) -> sizes.get(file)).reversed().thenComparing(file -> file));
+
+        List<List<String>> shards = new ArrayList<>(count);
+        long[] totals = new long[count];
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (String file : files) {
+            int smallest = 0;
+            for (int i = 1; i < count; i++) {
+                if (totals[i] < totals[smallest]) {
+                    smallest = i;
+                }
+            }
+            shards.get(smallest).add(file);
+            totals[smallest] += sizes.get(file);
+        }
+        return shards;
+    }
+
+    /**
+     * Starts worker process that graphs given shard
+     * @param files shard files
+     * @param shardDir directory worker writes partial graph to
+     * @return worker process
+     * @throws IOException
+     */
+    private Process start(List<String> files, File shardDir) throws IOException {
+        SourceUnit shard = new SourceUnit();
+        shard.Name = unit.Name;
+        shard.Type = unit.Type;
+        shard.Repo = unit.Repo;
+        shard.Dir = unit.Dir;
+        shard.Files = files;
+        shard.Dependencies = unit.Dependencies;
+        shard.Data = unit.Data;
+        shard.Ops = unit.Ops;
+        File unitFile = new File(shardDir, UNIT_FILE);
+        try (Writer writer = Files.newBufferedWriter(unitFile.toPath(), StandardCharsets.UTF_8)) {
+            new Gson().toJson(shard, writer);
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.add("graph");
+        command.addAll(graphArgs);
+        command.add("--shard-dir");
+        command.add(shardDir.getPath());
+        command.add("--skipped-report");
+        command.add(new File(shardDir, SKIPPED_FILE).getPath());
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Starting graphing worker [{}]", StringUtils.join(command, ' '));
+        }
+        // partial graph goes to shard directory, standard output is kept apart from coordinator's own output and
+        // log is passed through to coordinator's standard error
+        return new ProcessBuilder(command)
+                .redirectInput(unitFile)
+                .redirectOutput(new File(shardDir, OUTPUT_FILE))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Reads skipped files report written by worker
+     * @param shardDir directory worker wrote partial graph to
+     * @throws IOException
+     */
+    private void readSkipped(File shardDir) throws IOException {
+        File file = new File(shardDir, SKIPPED_FILE);
+        if (!file.isFile()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Map<String, String> shardSkipped = new Gson().fromJson(reader,
+                    new TypeToken<Map<String, String>>(){}.getType());
+            if (shardSkipped != null) {
+                skipped.putAll(shardSkipped);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.sourcegraph.toolchain.application;
 import com.beust.jcommander.JCommander;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
+import org.apache.log4j.LogManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,25 +29,58 @@ public class Main {
             LOGGER.debug("Command line arguments [{}]", StringUtils.join(args, ' '));
         }
 
+        int status = 0;
+        try {
+            run(args, true);
+        } catch (CommandException e) {
+            status = 1;
+        } finally {
+            // asynchronous appender loses buffered events unless they are flushed before JVM exits
+            LogManager.shutdown();
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Parses command line and executes command
+     * @param args command line arguments
+     * @param allowServe if serve command is allowed, it's not when handling requests of resident process
+     * @throws CommandException if command line is invalid or command failed
+     */
+    static void run(String[] args, boolean allowServe) {
         JCommander jc = new JCommander();
 
         // Add subcommands
         ScanCommand scan = new ScanCommand();
         GraphCommand graph = new GraphCommand();
         DepresolveCommand depresolve = new DepresolveCommand();
+        ConvertCommand convert = new ConvertCommand();
+        ServeCommand serve = new ServeCommand();
 
         jc.addCommand("scan", scan);
         jc.addCommand("graph", graph);
         jc.addCommand("depresolve", depresolve);
+        jc.addCommand("convert", convert);
+        if (allowServe) {
+            jc.addCommand("serve", serve);
+        }
 
         try {
             jc.parse(args);
         } catch (Exception e) {
             LOGGER.error("Unable to parse command line arguments", e);
-            System.exit(1);
+            throw new CommandException(e);
         }
 
-        switch (jc.getParsedCommand()) {
+        String command = jc.getParsedCommand();
+        if (command == null) {
+            LOGGER.error("No command specified");
+            jc.usage();
+            throw new CommandException();
+        }
+        switch (command) {
             case "scan":
                 scan.Execute();
                 break;
@@ -56,14 +90,20 @@ public class Main {
             case "depresolve":
                 depresolve.Execute();
                 break;
+            case "convert":
+                convert.Execute();
+                break;
+            case "serve":
+                serve.Execute();
+                break;
             default:
-                LOGGER.error("Unknown command {}", jc.getParsedCommand());
+                LOGGER.error("Unknown command {}", command);
                 jc.usage();
-                System.exit(1);
+                throw new CommandException();
         }
     }
 
-    private static String getVersion() {
+    static String getVersion() {
         String version = "development";
         try {
             InputStream manifestInputStream = Main.class.getResourceAsStream("/META-INF/MANIFEST.MF");
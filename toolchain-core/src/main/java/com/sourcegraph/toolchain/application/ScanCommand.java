@@ -1,7 +1,9 @@
 package com.sourcegraph.toolchain.application;
 
 import com.beust.jcommander.Parameter;
+import com.sourcegraph.toolchain.core.FileTable;
 import com.sourcegraph.toolchain.core.JSONUtil;
+import com.sourcegraph.toolchain.core.Metrics;
 import com.sourcegraph.toolchain.core.PathUtil;
 import com.sourcegraph.toolchain.core.objects.SourceUnit;
 import com.sourcegraph.toolchain.language.LanguageRegistry;
@@ -9,8 +11,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -25,6 +26,9 @@ class ScanCommand {
     @Parameter(names = {"--subdir"}, description = "The path of the current directory (in which the scanner is run), relative to the root directory of the repository being scanned (this is typically the root, \".\", as it is most useful to scan the entire repository)")
     String subdir;
 
+    @Parameter(names = {"--metrics"}, description = "File to write timing report to")
+    String metricsFile;
+
     /**
      * Main method
      */
@@ -37,12 +41,21 @@ class ScanCommand {
             if (subdir == null) {
                 subdir = ".";
             }
-            Collection<SourceUnit> units = LanguageRegistry.getInstance().getSourceUnits(PathUtil.CWD.toFile(), repoURI);
-            normalize(units, repoURI);
-            JSONUtil.writeJSON(units);
+            Metrics metrics = StringUtils.isEmpty(metricsFile) ? Metrics.DISABLED : new Metrics(0);
+            Collection<SourceUnit> units;
+            try (Metrics.Timer ignored = metrics.start(Metrics.Phase.SCAN)) {
+                units = LanguageRegistry.getInstance().getSourceUnits(PathUtil.CWD.toFile(), repoURI);
+                normalize(units, repoURI);
+            }
+            try (Metrics.Timer ignored = metrics.start(Metrics.Phase.SERIALIZE)) {
+                JSONUtil.writeJSON(units);
+            }
+            if (metrics.isEnabled()) {
+                metrics.write(new File(metricsFile));
+            }
         } catch (Exception e) {
             LOGGER.error("Unexpected error occurred while collecting source units", e);
-            System.exit(1);
+            throw new CommandException(e);
         }
     }
 
@@ -53,16 +66,18 @@ class ScanCommand {
     @SuppressWarnings("unchecked")
     private static void normalize(Collection<SourceUnit> units, String repoUri) {
 
+        FileTable fileTable = FileTable.getInstance();
         for (SourceUnit unit : units) {
             unit.Dir = PathUtil.relativizeCwd(unit.Dir);
             unit.Repo = repoUri;
             List<String> files = new ArrayList<>();
             for (String file : unit.Files) {
-                Path p = Paths.get(file).toAbsolutePath();
-                if (p.startsWith(PathUtil.CWD)) {
-                    files.add(PathUtil.relativizeCwd(p));
+                int id = fileTable.getId(file);
+                if (!fileTable.isExternal(id)) {
+                    files.add(fileTable.getPath(id));
                 } else {
-                    LOGGER.warn("Excluding {} from source files because it located outside of current directory", p);
+                    LOGGER.warn("Excluding {} from source files because it located outside of current directory",
+                            fileTable.getPath(id));
                 }
             }
             files.sort(String::compareTo);
@@ -0,0 +1,203 @@
+package com.sourcegraph.toolchain.application;
+
+import com.beust.jcommander.Parameter;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.sourcegraph.toolchain.core.FileTable;
+import com.sourcegraph.toolchain.core.objects.SymbolTable;
+import com.sourcegraph.toolchain.language.LanguageRegistry;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps JVM alive and executes scan, graph and depresolve requests, so that class loading, ATN deserialization and
+ * DFA warm-up are paid once rather than for every command.
+ * Each request is a single line of JSON {"Args": ["graph", "--compact"], "Input": {...}} where Args are command line
+ * arguments and optional Input is JSON that command reads from standard input (source unit for graph).
+ * Each response is a header line {"Status": 0, "Length": N} followed by N bytes of command output which is exactly
+ * what command would print to standard output when launched as a separate process. Output is spooled to a temporary
+ * file while command runs, so that its size is not limited by heap.
+ * Requests are executed one by one in daemon's working directory, each request gets fresh language instances.
+ * Socket connections are served concurrently, a request waits only while requests of other connections execute.
+ * Launcher script .bin/srclib-basic acts as a client when SRCLIB_BASIC_PORT is set.
+ */
+class ServeCommand {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServeCommand.class);
+
+    @Parameter(names = {"--port"}, description = "Loopback TCP port to accept requests on. When not set, requests are read from standard input and responses are written to standard output")
+    int port;
+
+    private final Gson gson = new Gson();
+
+    /**
+     * Main method
+     */
+    public void Execute() {
+        try {
+            if (port > 0) {
+                serveSocket();
+            } else {
+                // commands write to System.out, keeping original stream for responses
+                serve(System.in, System.out);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to serve requests", e);
+            throw new CommandException(e);
+        }
+    }
+
+    /**
+     * Accepts connections on loopback interface, each connection may carry any number of requests
+     * @throws IOException
+     */
+    private void serveSocket() throws IOException {
+        ExecutorService connections = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "serve-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            LOGGER.info("Serving requests on {}", server.getLocalSocketAddress());
+            while (true) {
+                Socket socket = server.accept();
+                connections.execute(() -> {
+                    try (Socket ignored = socket) {
+                        serve(socket.getInputStream(), socket.getOutputStream());
+                    } catch (IOException e) {
+                        LOGGER.warn("Connection failed - {}", e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            connections.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads requests until end of stream
+     * @param in stream to read requests from
+     * @param out stream to write responses to
+     * @throws IOException
+     */
+    private void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        OutputStream output = new BufferedOutputStream(out);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            Response response = handle(line);
+            try {
+                output.write(gson.toJson(response.header).getBytes(StandardCharsets.UTF_8));
+                output.write('\n');
+                if (response.body != null) {
+                    Files.copy(response.body.toPath(), output);
+                }
+                output.flush();
+            } finally {
+                FileUtils.deleteQuietly(response.body);
+            }
+        }
+    }
+
+    /**
+     * Executes single request, command's standard input and output are redirected for the duration of request.
+     * Requests are executed one at a time since standard streams and language registry are process-wide
+     * @param line request line
+     * @return response, its body is a temporary file to be deleted by caller
+     */
+    private synchronized Response handle(String line) {
+        Response response = new Response();
+        Request request;
+        try {
+            request = gson.fromJson(line, Request.class);
+        } catch (JsonParseException e) {
+            LOGGER.error("Malformed request", e);
+            response.header.Status = 1;
+            return response;
+        }
+        if (request == null || request.Args == null || request.Args.length == 0) {
+            LOGGER.error("Request contains no command");
+            response.header.Status = 1;
+            return response;
+        }
+
+        byte[] input = request.Input == null ? new byte[0] :
+                request.Input.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            response.body = File.createTempFile("srclib-response", ".out");
+        } catch (IOException e) {
+            LOGGER.error("Failed to create response file", e);
+            response.header.Status = 1;
+            return response;
+        }
+        InputStream stdin = System.in;
+        PrintStream stdout = System.out;
+        PrintStream spool = null;
+        long start = System.currentTimeMillis();
+        try {
+            spool = new PrintStream(new BufferedOutputStream(new FileOutputStream(response.body)),
+                    false,
+                    StandardCharsets.UTF_8.name());
+            System.setIn(new ByteArrayInputStream(input));
+            System.setOut(spool);
+            // fresh language instances and symbols for each request, shared DFA stays warm
+            LanguageRegistry.reset();
+            SymbolTable.getInstance().clear();
+            FileTable.getInstance().clear();
+            Main.run(request.Args, false);
+        } catch (CommandException e) {
+            response.header.Status = 1;
+        } catch (Exception e) {
+            LOGGER.error("Unexpected error occurred while handling request", e);
+            response.header.Status = 1;
+        } finally {
+            if (spool != null) {
+                spool.close();
+            }
+            System.setIn(stdin);
+            System.setOut(stdout);
+        }
+        LOGGER.info("{} completed in {} ms with status {}", request.Args[0],
+                System.currentTimeMillis() - start, response.header.Status);
+        response.header.Length = response.body.length();
+        return response;
+    }
+
+    /**
+     * Request to execute command
+     */
+    private static class Request {
+        String[] Args;
+        JsonElement Input;
+    }
+
+    /**
+     * Response header, followed by Length bytes of command output
+     */
+    private static class Header {
+        int Status;
+        long Length;
+    }
+
+    private static class Response {
+        Header header = new Header();
+        /**
+         * Spooled command output, null if there is none
+         */
+        File body;
+    }
+}
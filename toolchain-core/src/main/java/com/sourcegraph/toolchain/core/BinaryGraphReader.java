@@ -0,0 +1,284 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.sourcegraph.toolchain.core.BinaryGraphWriter.*;
+
+/**
+ * Reads graph written by {@link BinaryGraphWriter}. Definitions are read first, then references. File paths of read
+ * definitions and references are kept as they were written (relative to CWD of process that wrote graph). Not thread-safe
+ */
+public class BinaryGraphReader implements Closeable {
+
+    private final DataInputStream in;
+
+    private final int version;
+
+    private final String[] strings;
+
+    private final FileTable fileTable = FileTable.getInstance();
+
+    private int defsLeft;
+    private int refsLeft = -1;
+
+    /**
+     * Files, offsets and paths of definitions read so far, used to restore their own references
+     */
+    private int defCount;
+    private int[] defFiles = new int[16];
+    private String[] defPaths = new String[16];
+    private int[] defStarts = new int[16];
+    private int[] defEnds = new int[16];
+
+    /**
+     * Data entries of last read definition in stored order, definition data map may iterate them differently
+     */
+    private final Map<String, Object> lastData = new LinkedHashMap<>();
+
+    private int currentFile;
+    private int prevStart;
+
+    /**
+     * Reads header and string table
+     * @param in stream to read graph from
+     * @throws IOException if stream is not a binary graph or graph was written by newer version
+     */
+    public BinaryGraphReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary graph");
+        }
+        version = readVarint();
+        if (version > VERSION) {
+            throw new IOException("Unsupported binary graph version " + version);
+        }
+        strings = new String[readVarint()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readVarint()];
+            this.in.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        defsLeft = readVarint();
+    }
+
+    /**
+     * @return format version of graph
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return next definition or null if there are no more definitions
+     * @throws IOException
+     */
+    public Def readDef() throws IOException {
+        if (defsLeft == 0) {
+            return null;
+        }
+        defsLeft--;
+        Def def = new Def();
+        def.file = fileTable.intern(readString());
+        def.name = readString();
+        def.defStart = readVarint();
+        def.defEnd = def.defStart + unzigzag(readVarint());
+        def.kind = readString();
+        int flags = in.readUnsignedByte();
+        def.exported = (flags & DEF_EXPORTED) != 0;
+        def.local = (flags & DEF_LOCAL) != 0;
+        def.test = (flags & DEF_TEST) != 0;
+        def.defKey = DefKey.of(null, readString());
+        // tree path is the same as path for now
+        readString();
+        lastData.clear();
+        for (int entries = readVarint(); entries > 0; entries--) {
+            String key = readString();
+            int type = in.readUnsignedByte();
+            switch (type) {
+                case VALUE_NULL:
+                    lastData.put(key, null);
+                    break;
+                case VALUE_STRING:
+                    lastData.put(key, readString());
+                    break;
+                case VALUE_JSON:
+                    lastData.put(key, new JsonParser().parse(readString()));
+                    break;
+                default:
+                    throw new IOException("Unknown definition data value type " + type);
+            }
+        }
+        def.defData.putAll(lastData);
+
+        if (defCount == defFiles.length) {
+            int capacity = defCount << 1;
+            defFiles = Arrays.copyOf(defFiles, capacity);
+            defPaths = Arrays.copyOf(defPaths, capacity);
+            defStarts = Arrays.copyOf(defStarts, capacity);
+            defEnds = Arrays.copyOf(defEnds, capacity);
+        }
+        defFiles[defCount] = def.file;
+        defPaths[defCount] = def.defKey.getPath();
+        defStarts[defCount] = def.defStart;
+        defEnds[defCount] = def.defEnd;
+        defCount++;
+        return def;
+    }
+
+    /**
+     * @return next reference or null if there are no more references. Skips remaining definitions if needed
+     * @throws IOException
+     */
+    public Ref readRef() throws IOException {
+        while (readDef() != null) {
+            // skipping definitions
+        }
+        if (refsLeft < 0) {
+            refsLeft = readVarint();
+        }
+        if (refsLeft == 0) {
+            return null;
+        }
+        refsLeft--;
+        Ref ref = new Ref();
+        int flags = in.readUnsignedByte();
+        ref.def = (flags & REF_DEF) != 0;
+        if ((flags & REF_SELF) != 0) {
+            int index = readVarint();
+            if (index >= defCount) {
+                throw new IOException("Reference to unknown definition " + index);
+            }
+            ref.file = defFiles[index];
+            ref.defKey = DefKey.of(null, defPaths[index]);
+            ref.start = defStarts[index];
+            ref.end = defEnds[index];
+        } else {
+            boolean fileChanged = (flags & REF_FILE) != 0;
+            ref.file = fileChanged ? fileTable.intern(readString()) : currentFile;
+            if ((flags & REF_REPO) != 0) {
+                ref.defRepo = readString();
+            }
+            if ((flags & REF_UNIT_TYPE) != 0) {
+                ref.defUnitType = readString();
+            }
+            if ((flags & REF_UNIT) != 0) {
+                ref.defUnit = readString();
+            }
+            ref.defKey = DefKey.of(null, readString());
+            ref.start = (fileChanged ? 0 : prevStart) + unzigzag(readVarint());
+            ref.end = ref.start + unzigzag(readVarint());
+        }
+        currentFile = ref.file;
+        prevStart = ref.start;
+        return ref;
+    }
+
+    /**
+     * Writes remaining part of graph as JSON, output is identical to one graph command produces in JSON format
+     * @param writer writer to write JSON to
+     * @param pretty produce pretty-printed (true) or compact (false) JSON
+     * @throws IOException
+     */
+    public void writeJSON(Writer writer, boolean pretty) throws IOException {
+        JsonWriter out = new JsonWriter(writer);
+        if (pretty) {
+            out.setIndent("  ");
+        }
+        out.setHtmlSafe(false);
+        out.setSerializeNulls(false);
+        Gson gson = new Gson();
+
+        out.beginObject();
+        out.name("Defs").beginArray();
+        Def def;
+        while ((def = readDef()) != null) {
+            // same fields and order as Def.JSONAdapter produces
+            out.beginObject();
+            if (def.file != 0) {
+                out.name("File").value(fileTable.getPath(def.file));
+            }
+            out.name("Name").value(def.name);
+            out.name("DefStart").value(def.defStart);
+            out.name("DefEnd").value(def.defEnd);
+            out.name("Kind").value(def.kind);
+            out.name("Exported").value(def.exported);
+            out.name("Local").value(def.local);
+            out.name("Test").value(def.test);
+            out.name("Path").value(def.defKey.formatPath());
+            out.name("TreePath").value(def.defKey.formatTreePath());
+            out.name("Data").beginObject();
+            for (Map.Entry<String, Object> entry : lastData.entrySet()) {
+                out.name(entry.getKey());
+                Object value = entry.getValue();
+                if (value == null || value instanceof String) {
+                    out.value((String) value);
+                } else {
+                    gson.toJson(value, value.getClass(), out);
+                }
+            }
+            out.endObject();
+            out.endObject();
+        }
+        out.endArray();
+        out.name("Refs").beginArray();
+        Ref ref;
+        while ((ref = readRef()) != null) {
+            // same fields and order as Ref.JSONAdapter produces
+            out.beginObject();
+            if (ref.defRepo != null) out.name("DefRepo").value(ref.defRepo);
+            if (ref.defUnitType != null) out.name("DefUnitType").value(ref.defUnitType);
+            if (ref.defUnit != null) out.name("DefUnit").value(ref.defUnit);
+            out.name("DefPath").value(ref.defKey.formatPath());
+            out.name("File").value(fileTable.getPath(ref.file));
+            out.name("Start").value(ref.start);
+            out.name("End").value(ref.end);
+            out.name("Def").value(ref.def);
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        int index = readVarint();
+        if (index > strings.length) {
+            throw new IOException("String index " + index + " is out of range");
+        }
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
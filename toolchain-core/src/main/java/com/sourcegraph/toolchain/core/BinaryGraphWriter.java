@@ -0,0 +1,211 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.Gson;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.Ref;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes graph in compact binary format. Layout (all integers are unsigned LEB128 varints unless noted):
+ * <pre>
+ * header:  magic "SGRF" (4 bytes), format version
+ * strings: count, then each string as UTF-8 byte length and bytes; strings are referred to by index + 1, 0 is null
+ * defs:    count, then each def as file, name, start, end - start, kind, flags byte (exported, local, test),
+ *          path, tree path, number of data entries and entries (key, value type byte, value)
+ * refs:    count, then each ref as flags byte followed by
+ *          def index                                       if ref is a def's own ref (same file, offsets and path)
+ *          [file] [repo] [unit type] [unit] path,
+ *          zigzag(start - previous start), zigzag(end - start) otherwise
+ * </pre>
+ * Start offsets are delta-encoded within runs of references of the same file. Paths are written relative to CWD,
+ * the same way JSON output has them. Not thread-safe
+ */
+public class BinaryGraphWriter {
+
+    static final byte[] MAGIC = {'S', 'G', 'R', 'F'};
+
+    static final int VERSION = 1;
+
+    static final int DEF_EXPORTED = 1;
+    static final int DEF_LOCAL = 1 << 1;
+    static final int DEF_TEST = 1 << 2;
+
+    static final int REF_SELF = 1;
+    static final int REF_DEF = 1 << 1;
+    static final int REF_FILE = 1 << 2;
+    static final int REF_REPO = 1 << 3;
+    static final int REF_UNIT_TYPE = 1 << 4;
+    static final int REF_UNIT = 1 << 5;
+
+    static final int VALUE_NULL = 0;
+    static final int VALUE_STRING = 1;
+    static final int VALUE_JSON = 2;
+
+    private final DataOutputStream out;
+
+    /**
+     * Encodes definition data values other than strings
+     */
+    private final Gson gson = new Gson();
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+    /**
+     * @param out stream to write graph to
+     */
+    public BinaryGraphWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /**
+     * Writes graph and flushes underlying stream
+     * @param defs definitions
+     * @param refs references
+     * @throws IOException
+     */
+    public void write(Collection<Def> defs, Collection<Ref> refs) throws IOException {
+        FileTable fileTable = FileTable.getInstance();
+        // definitions by path, to detect their own references
+        Map<String, Integer> defIndexes = new HashMap<>();
+        List<String> defFiles = new ArrayList<>(defs.size());
+        for (Def def : defs) {
+            String file = fileTable.getPath(def.file);
+            defIndexes.putIfAbsent(def.defKey.formatPath(), defFiles.size());
+            defFiles.add(file);
+            intern(file);
+            intern(def.name);
+            intern(def.kind);
+            intern(def.defKey.formatPath());
+            intern(def.defKey.formatTreePath());
+            for (Map.Entry<String, Object> entry : def.defData.entrySet()) {
+                intern(entry.getKey());
+                intern(encodeValue(entry.getValue()));
+            }
+        }
+        for (Ref ref : refs) {
+            intern(fileTable.getPath(ref.file));
+            intern(ref.defRepo);
+            intern(ref.defUnitType);
+            intern(ref.defUnit);
+            intern(ref.defKey.formatPath());
+        }
+
+        out.write(MAGIC);
+        writeVarint(VERSION);
+        writeVarint(strings.size());
+        for (String s : strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarint(defs.size());
+        List<Def> defList = new ArrayList<>(defs);
+        for (Def def : defList) {
+            writeString(fileTable.getPath(def.file));
+            writeString(def.name);
+            writeVarint(def.defStart);
+            writeVarint(zigzag(def.defEnd - def.defStart));
+            writeString(def.kind);
+            out.writeByte((def.exported ? DEF_EXPORTED : 0) | (def.local ? DEF_LOCAL : 0) | (def.test ? DEF_TEST : 0));
+            writeString(def.defKey.formatPath());
+            writeString(def.defKey.formatTreePath());
+            writeVarint(def.defData.size());
+            for (Map.Entry<String, Object> entry : def.defData.entrySet()) {
+                writeString(entry.getKey());
+                Object value = entry.getValue();
+                if (value == null) {
+                    out.writeByte(VALUE_NULL);
+                } else {
+                    out.writeByte(value instanceof String ? VALUE_STRING : VALUE_JSON);
+                    writeString(encodeValue(value));
+                }
+            }
+        }
+
+        writeVarint(refs.size());
+        String currentFile = null;
+        int prevStart = 0;
+        for (Ref ref : refs) {
+            String file = fileTable.getPath(ref.file);
+            String path = ref.defKey.formatPath();
+            Integer defIndex = null;
+            if (ref.def && ref.defRepo == null && ref.defUnitType == null && ref.defUnit == null) {
+                defIndex = defIndexes.get(path);
+                if (defIndex != null) {
+                    Def def = defList.get(defIndex);
+                    if (!Objects.equals(file, defFiles.get(defIndex)) ||
+                            def.defStart != ref.start ||
+                            def.defEnd != ref.end) {
+                        defIndex = null;
+                    }
+                }
+            }
+            if (defIndex != null) {
+                out.writeByte(REF_SELF | REF_DEF);
+                writeVarint(defIndex);
+            } else {
+                boolean fileChanged = !file.equals(currentFile);
+                out.writeByte((ref.def ? REF_DEF : 0) |
+                        (fileChanged ? REF_FILE : 0) |
+                        (ref.defRepo != null ? REF_REPO : 0) |
+                        (ref.defUnitType != null ? REF_UNIT_TYPE : 0) |
+                        (ref.defUnit != null ? REF_UNIT : 0));
+                if (fileChanged) {
+                    writeString(file);
+                }
+                if (ref.defRepo != null) {
+                    writeString(ref.defRepo);
+                }
+                if (ref.defUnitType != null) {
+                    writeString(ref.defUnitType);
+                }
+                if (ref.defUnit != null) {
+                    writeString(ref.defUnit);
+                }
+                writeString(path);
+                writeVarint(zigzag(ref.start - (fileChanged ? 0 : prevStart)));
+                writeVarint(zigzag(ref.end - ref.start));
+            }
+            if (!file.equals(currentFile)) {
+                currentFile = file;
+            }
+            prevStart = ref.start;
+        }
+        out.flush();
+    }
+
+    private String encodeValue(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        return gson.toJson(value);
+    }
+
+    private void intern(String s) {
+        if (s != null && !strings.containsKey(s)) {
+            strings.put(s, strings.size());
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        writeVarint(s == null ? 0 : strings.get(s) + 1);
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sourcegraph.toolchain.core;
+
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import com.sourcegraph.toolchain.language.Language;
+
+import java.util.*;
+
+/**
+ * Resolves candidate references in batches when graph writer can't keep all of them in memory. Remembers a limited
+ * number of recent resolutions, both successful and failed ones. Not thread-safe
+ */
+class CandidateResolver {
+
+    /**
+     * Maximum number of candidate resolutions to remember
+     */
+    private static final int MAX_RESOLUTIONS = 10000;
+
+    /**
+     * Number of candidate references resolved at once
+     */
+    static final int BATCH_SIZE = 10000;
+
+    private final Language language;
+
+    private final Metrics metrics;
+
+    /**
+     * Source key => resolved key, null if key can't be resolved
+     */
+    private final Map<DefKey, DefKey> resolutions = new LinkedHashMap<DefKey, DefKey>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DefKey, DefKey> eldest) {
+            return size() > MAX_RESOLUTIONS;
+        }
+    };
+
+    /**
+     * @param language language to resolve candidate references with
+     * @param metrics metrics to record resolution time to
+     */
+    CandidateResolver(Language language, Metrics metrics) {
+        this.language = language;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Resolves batch of candidate references, keys that are not known yet are resolved with a single bulk call
+     * @param batch candidate references
+     * @return resolved references (definition keys are replaced with resolved ones)
+     */
+    List<Ref> resolve(List<Ref> batch) {
+        // resolutions of this batch are taken before anything is remembered, remembering may evict them
+        Map<DefKey, DefKey> known = new HashMap<>();
+        Set<DefKey> unknown = new HashSet<>();
+        for (Ref ref : batch) {
+            if (known.containsKey(ref.defKey) || unknown.contains(ref.defKey)) {
+                continue;
+            }
+            if (resolutions.containsKey(ref.defKey)) {
+                // get() refreshes access order
+                known.put(ref.defKey, resolutions.get(ref.defKey));
+            } else {
+                unknown.add(ref.defKey);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            long start = System.nanoTime();
+            Map<DefKey, DefKey> resolved = language.resolveAll(unknown);
+            metrics.record(null, Metrics.Phase.RESOLVE, System.nanoTime() - start);
+            for (DefKey key : unknown) {
+                DefKey adjusted = resolved.get(key);
+                known.put(key, adjusted);
+                resolutions.put(key, adjusted);
+            }
+        }
+        List<Ref> ret = new ArrayList<>(batch.size());
+        for (Ref ref : batch) {
+            DefKey adjusted = known.get(ref.defKey);
+            if (adjusted != null) {
+                ref.defKey = adjusted;
+                ret.add(ref);
+            }
+        }
+        return ret;
+    }
+}
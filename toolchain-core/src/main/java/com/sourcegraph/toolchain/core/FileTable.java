@@ -0,0 +1,203 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.Ref;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense integer IDs (1, 2, ...) to files. Each file path is relativized to CWD and normalized once, when
+ * file is seen for the first time, definitions and references refer to files by ID. ID 0 denotes no file.
+ * Thread-safe, registering new files is serialized while lookups by ID do not lock
+ */
+public class FileTable {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * Name of file ID field of definitions and references
+     */
+    private static final String FILE_FIELD = "file";
+
+    private static final FileTable INSTANCE = new FileTable();
+
+    /**
+     * Path as given (absolute or relative) => ID
+     */
+    private volatile Map<String, Integer> ids = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+
+    /**
+     * Path relative to CWD => ID
+     */
+    private volatile Map<String, Integer> canonicalIds = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+
+    /**
+     * Paths relative to CWD indexed by ID, element 0 is unused. Field is written again after each new file, so that
+     * readers see all the files registered before
+     */
+    private volatile String[] paths = new String[INITIAL_CAPACITY];
+
+    /**
+     * Flags of files located outside of CWD indexed by ID, written before paths
+     */
+    private volatile boolean[] external = new boolean[INITIAL_CAPACITY];
+
+    private int size;
+
+    private FileTable() {
+    }
+
+    /**
+     * @return file table instance
+     */
+    public static FileTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param path absolute path or path relative to CWD
+     * @return file ID, 0 if path is null
+     */
+    public int getId(String path) {
+        if (path == null) {
+            return 0;
+        }
+        Integer id = ids.get(path);
+        if (id == null) {
+            id = intern(PathUtil.relativizeCwd(path));
+            ids.put(path, id);
+        }
+        return id;
+    }
+
+    /**
+     * @param file file
+     * @return file ID
+     */
+    public int getId(File file) {
+        return getId(file.getPath());
+    }
+
+    /**
+     * @param path path that is already relative to CWD and normalized, for example the one read back from graph
+     * cache or binary graph. Path is kept as is
+     * @return file ID, 0 if path is null
+     */
+    public int intern(String path) {
+        if (path == null) {
+            return 0;
+        }
+        Integer id = canonicalIds.get(path);
+        if (id != null) {
+            return id;
+        }
+        return canonicalIds.computeIfAbsent(path, this::register);
+    }
+
+    /**
+     * @param path absolute path or path relative to CWD
+     * @return path relative to CWD (if file is located inside CWD) or absolute path, same as
+     * PathUtil.relativizeCwd() produces
+     */
+    public String relativize(String path) {
+        return getPath(getId(path));
+    }
+
+    /**
+     * @param id file ID
+     * @return path to file relative to CWD (or absolute path if file is located outside of CWD), null for ID 0
+     */
+    public String getPath(int id) {
+        String[] paths = this.paths;
+        return id > 0 && id < paths.length ? paths[id] : null;
+    }
+
+    /**
+     * @param id file ID
+     * @return true if file is located outside of CWD
+     */
+    public boolean isExternal(int id) {
+        boolean[] external = this.external;
+        return id > 0 && id < external.length && external[id];
+    }
+
+    /**
+     * Forgets all files, IDs issued before become invalid
+     */
+    public synchronized void clear() {
+        ids = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+        canonicalIds = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+        external = new boolean[INITIAL_CAPACITY];
+        paths = new String[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private synchronized int register(String path) {
+        int id = ++size;
+        String[] paths = this.paths;
+        boolean[] external = this.external;
+        if (id == paths.length) {
+            paths = Arrays.copyOf(paths, paths.length << 1);
+            external = Arrays.copyOf(external, external.length << 1);
+        }
+        paths[id] = path;
+        external[id] = Paths.get(path).isAbsolute();
+        // publishes new file to readers
+        this.external = external;
+        this.paths = paths;
+        return id;
+    }
+
+    /**
+     * Makes reflection-based serialization of definitions and references keep file IDs as paths relative to CWD,
+     * paths are turned back to IDs when read. Used where definitions and references are stored and read back
+     * (graph cache, spool files)
+     */
+    public static final TypeAdapterFactory JSON_FACTORY = new TypeAdapterFactory() {
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != Def.class && type.getRawType() != Ref.class) {
+                return null;
+            }
+            TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+            TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+            return new TypeAdapter<T>() {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    JsonElement tree = delegate.toJsonTree(value);
+                    if (tree.isJsonObject()) {
+                        JsonObject object = tree.getAsJsonObject();
+                        JsonElement file = object.get(FILE_FIELD);
+                        if (file != null && file.isJsonPrimitive()) {
+                            String path = INSTANCE.getPath(file.getAsInt());
+                            object.add(FILE_FIELD, path == null ? JsonNull.INSTANCE : new JsonPrimitive(path));
+                        }
+                    }
+                    elementAdapter.write(out, tree);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    JsonElement tree = elementAdapter.read(in);
+                    if (tree.isJsonObject()) {
+                        JsonObject object = tree.getAsJsonObject();
+                        JsonElement file = object.get(FILE_FIELD);
+                        if (file != null) {
+                            object.addProperty(FILE_FIELD, file.isJsonNull() ? 0 : INSTANCE.intern(file.getAsString()));
+                        }
+                    }
+                    return delegate.fromJsonTree(tree);
+                }
+            };
+        }
+    };
+}
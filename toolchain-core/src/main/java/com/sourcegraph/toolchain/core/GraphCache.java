@@ -0,0 +1,190 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk cache of per-file graphing results. Each entry holds definitions and references emitted by a file,
+ * files it depends on (for example includes or autoloaded classes) and symbols file contributed to language-wide
+ * symbol tables. Entries are keyed by toolchain version, language, file path and file content hash, entry becomes
+ * stale when any of files it depends on has changed.
+ * Thread-safe, may be shared between graphing workers
+ */
+public class GraphCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphCache.class);
+
+    /**
+     * Cache directory
+     */
+    private final File dir;
+
+    /**
+     * Toolchain version
+     */
+    private final String version;
+
+    /**
+     * Uses reflection-based rules to keep all the fields of definitions and references, definition keys are
+     * read back as canonical ones
+     */
+    private final Gson gson = new GsonBuilder()
+            .serializeNulls()
+            .registerTypeAdapter(DefKey.class, new DefKey.JSONAdapter())
+            .registerTypeAdapterFactory(FileTable.JSON_FACTORY)
+            .create();
+
+    /**
+     * Content hashes of files seen during current session (path => hash)
+     */
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    /**
+     * @param dir cache directory
+     * @param version toolchain version, entries produced by other versions are ignored
+     */
+    public GraphCache(File dir, String version) {
+        this.dir = dir;
+        this.version = version;
+    }
+
+    /**
+     * @param language language name
+     * @param file file path (relative to CWD)
+     * @return cached entry for current content of a given file or null if there is no up-to-date entry
+     */
+    public Entry get(String language, String file) {
+        File entryFile = getEntryFile(language, file);
+        if (entryFile == null || !entryFile.isFile()) {
+            return null;
+        }
+        Entry entry;
+        try (Reader reader = Files.newBufferedReader(entryFile.toPath(), StandardCharsets.UTF_8)) {
+            entry = gson.fromJson(reader, Entry.class);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to read cache entry {} - {}", entryFile, e.getMessage());
+            return null;
+        }
+        for (Map.Entry<String, String> dependency : entry.dependencies.entrySet()) {
+            if (!dependency.getValue().equals(hash(dependency.getKey()))) {
+                LOGGER.debug("Cache entry for {} is stale, {} has changed", file, dependency.getKey());
+                return null;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Stores entry for current content of a given file
+     * @param language language name
+     * @param file file path (relative to CWD)
+     * @param entry entry to store
+     */
+    public void put(String language, String file, Entry entry) {
+        File entryFile = getEntryFile(language, file);
+        if (entryFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(entryFile.getParentFile().toPath());
+            // writing to temporary file first, concurrent readers should never see incomplete entries
+            File tmp = File.createTempFile(entryFile.getName(), ".tmp", entryFile.getParentFile());
+            try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            Files.move(tmp.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write cache entry {} - {}", entryFile, e.getMessage());
+        }
+    }
+
+    /**
+     * @param file file path (relative to CWD)
+     * @return content hash of a given file or empty string if file cannot be read
+     */
+    public String hash(String file) {
+        return hashes.computeIfAbsent(file, f -> {
+            try {
+                return sha256(Files.readAllBytes(new File(f).toPath()));
+            } catch (IOException e) {
+                return StringUtils.EMPTY;
+            }
+        });
+    }
+
+    /**
+     * @param language language name
+     * @param file file path (relative to CWD)
+     * @return file to keep entry in or null if file cannot be read
+     */
+    private File getEntryFile(String language, String file) {
+        String contentHash = hash(file);
+        if (contentHash.isEmpty()) {
+            return null;
+        }
+        String key = sha256((version + '\0' + language + '\0' + file + '\0' + contentHash).
+                getBytes(StandardCharsets.UTF_8));
+        return new File(new File(dir, key.substring(0, 2)), key + ".json");
+    }
+
+    /**
+     * @param data data to hash
+     * @return hex-encoded SHA-256 digest of given data
+     */
+    private static String sha256(byte[] data) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        StringBuilder ret = new StringBuilder();
+        for (byte b : digest.digest(data)) {
+            ret.append(String.format("%02x", b));
+        }
+        return ret.toString();
+    }
+
+    /**
+     * Graphing results of a single file
+     */
+    public static class Entry {
+
+        /**
+         * Definitions emitted by file
+         */
+        public List<Def> defs = new ArrayList<>();
+
+        /**
+         * References emitted by file
+         */
+        public List<Ref> refs = new ArrayList<>();
+
+        /**
+         * Files that were requested for processing while processing file (path => content hash), in request order
+         */
+        public Map<String, String> dependencies = new LinkedHashMap<>();
+
+        /**
+         * Language-specific symbols contributed by file
+         */
+        public JsonElement symbols;
+    }
+}
@@ -7,39 +7,43 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.Map;
 
 /**
- * Implementation of graph writer that collects references and definitions and then writes them as JSON
+ * Implementation of graph writer that collects references and definitions and then writes them as JSON.
+ * Thread-safe, may be shared between graphing workers
  */
 public class GraphData implements GraphWriter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphData.class);
 
     private final Map<Def, Def> defs = new LinkedHashMap<>();
-    private final Collection<Ref> refs = new LinkedHashSet<>();
+    private final RefTable refs = new RefTable();
 
     @Override
-    public void writeRef(Ref r) {
+    public synchronized void writeRef(Ref r) {
         refs.add(r);
     }
 
     @Override
-    public void writeDef(Def s) {
+    public synchronized void writeDef(Def s) {
         Def prev = defs.put(s, s);
         if (prev != null) {
             LOGGER.warn("{} already defined in {} at {}:{}, redefinition attempt in {} at {}:{}",
                     prev.defKey.getPath(),
-                    prev.file,
+                    FileTable.getInstance().getPath(prev.file),
                     prev.defStart,
                     prev.defEnd,
-                    s.file,
+                    FileTable.getInstance().getPath(s.file),
                     s.defStart,
                     s.defEnd);
         }
     }
 
+    @Override
+    public void endFile(String file) {
+    }
+
     @Override
     public void flush() {
     }
@@ -48,7 +52,17 @@ public class GraphData implements GraphWriter {
         return defs.keySet();
     }
 
+    /**
+     * @return references in insertion order, reference objects are made while iterating
+     */
     public Collection<Ref> getRefs() {
+        return refs.asCollection();
+    }
+
+    /**
+     * @return columnar storage of references
+     */
+    public RefTable getRefTable() {
         return refs;
     }
 }
@@ -20,6 +20,12 @@ public interface GraphWriter {
      */
     void writeDef(Def def);
 
+    /**
+     * Notifies writer that all definitions and references produced by a given file were written
+     * @param file path (relative to CWD) to file
+     */
+    void endFile(String file);
+
     /**
      * Flush underlying streams
      */
@@ -6,8 +6,10 @@ import com.sourcegraph.toolchain.core.objects.Def;
 import com.sourcegraph.toolchain.core.objects.Ref;
 import org.apache.commons.io.IOUtils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
@@ -17,13 +19,40 @@ import java.nio.charset.StandardCharsets;
 public class JSONUtil {
 
     /**
-     * Writes object as UTF-8 JSON
+     * Size of output buffer
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes object as pretty-printed UTF-8 JSON
      * @param o object to write
      */
     public static void writeJSON(Object o) {
-        Writer w = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
-        gson().toJson(o, w);
-        IOUtils.closeQuietly(w);
+        writeJSON(o, true);
+    }
+
+    /**
+     * Writes object as UTF-8 JSON
+     * @param o object to write
+     * @param pretty produce pretty-printed (true) or compact (false) JSON
+     */
+    public static void writeJSON(Object o, boolean pretty) {
+        Writer w = newOutputWriter();
+        try {
+            (pretty ? gson() : compactGson()).toJson(o, w);
+            w.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            IOUtils.closeQuietly(w);
+        }
+    }
+
+    /**
+     * @return buffered UTF-8 writer to standard output
+     */
+    public static Writer newOutputWriter() {
+        return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
     }
 
     /**
@@ -31,12 +60,28 @@ public class JSONUtil {
      * @return configured writer implementation
      */
     private static Gson gson() {
-        GsonBuilder gsonBuilder = new GsonBuilder();
+        GsonBuilder gsonBuilder = gsonBuilder();
         gsonBuilder.setPrettyPrinting();
-        gsonBuilder.disableHtmlEscaping();
-        gsonBuilder.registerTypeAdapter(Def.class, new Def.JSONSerializer());
-        gsonBuilder.registerTypeAdapter(Ref.class, new Ref.JSONSerializer());
         return gsonBuilder.create();
     }
 
+    /**
+     * Constructs new writer implementation that produces compact (not pretty-printed) JSON
+     * @return configured writer implementation
+     */
+    static Gson compactGson() {
+        return gsonBuilder().create();
+    }
+
+    /**
+     * @return builder configured with toolchain-specific serialization rules
+     */
+    private static GsonBuilder gsonBuilder() {
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        gsonBuilder.disableHtmlEscaping();
+        gsonBuilder.registerTypeAdapterFactory(Def.JSONAdapter.FACTORY);
+        gsonBuilder.registerTypeAdapter(Ref.class, new Ref.JSONAdapter());
+        return gsonBuilder;
+    }
+
 }
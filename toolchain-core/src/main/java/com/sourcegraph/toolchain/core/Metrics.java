@@ -0,0 +1,379 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects per-file, per-phase timings, allocated bytes and number of syntax errors and produces JSON report.
+ * Phase timers may nest (for example emit inside walk or processing of included file inside walk), time of nested
+ * timers is excluded from enclosing one, so phase times of a file add up to time spent on that file.
+ * Thread-safe, may be shared between graphing workers
+ */
+public class Metrics {
+
+    /**
+     * Metrics that record nothing, used when metrics are not requested
+     */
+    public static final Metrics DISABLED = new Metrics(false, 0);
+
+    private static final Timer NO_TIMER = () -> {
+    };
+
+    /**
+     * Measured phases
+     */
+    public enum Phase {
+        SCAN, LEX, PARSE, WALK, EMIT, RESOLVE, SERIALIZE;
+
+        String getName() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Phase timer, stops on close
+     */
+    public interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final boolean enabled;
+
+    /**
+     * Number of slowest files to include in report
+     */
+    private final int top;
+
+    private final long startTime = System.nanoTime();
+
+    /**
+     * Metrics of each file (path => metrics)
+     */
+    private final Map<String, FileMetrics> files = new ConcurrentHashMap<>();
+
+    /**
+     * Totals of all phases, including ones not bound to any file
+     */
+    private final AtomicLongArray totals = new AtomicLongArray(Phase.values().length);
+
+    /**
+     * Files being processed by each thread, innermost last
+     */
+    private final ThreadLocal<Deque<FileFrame>> fileFrames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Running timers of each thread, innermost last
+     */
+    private final ThreadLocal<Deque<TimerFrame>> timerFrames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * @param top number of slowest files to include in report
+     */
+    public Metrics(int top) {
+        this(true, top);
+    }
+
+    private Metrics(boolean enabled, int top) {
+        this.enabled = enabled;
+        this.top = top;
+    }
+
+    /**
+     * @return true if metrics are collected
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks start of file processing by current thread, subsequent timers are attributed to given file
+     * @param file path (relative to CWD) to file
+     */
+    public void startFile(String file) {
+        if (!enabled) {
+            return;
+        }
+        fileFrames.get().addLast(new FileFrame(getFile(file), allocatedBytes()));
+    }
+
+    /**
+     * Marks end of file processing by current thread
+     */
+    public void endFile() {
+        if (!enabled) {
+            return;
+        }
+        Deque<FileFrame> frames = fileFrames.get();
+        FileFrame frame = frames.pollLast();
+        if (frame == null || frame.startBytes < 0) {
+            return;
+        }
+        long allocated = allocatedBytes() - frame.startBytes;
+        frame.metrics.allocatedBytes.addAndGet(allocated - frame.nestedBytes);
+        FileFrame parent = frames.peekLast();
+        if (parent != null) {
+            parent.nestedBytes += allocated;
+        }
+    }
+
+    /**
+     * Starts phase timer attributed to file being processed by current thread
+     * @param phase phase to measure
+     * @return timer to close when phase is complete
+     */
+    public Timer start(Phase phase) {
+        if (!enabled) {
+            return NO_TIMER;
+        }
+        FileFrame fileFrame = fileFrames.get().peekLast();
+        TimerFrame frame = new TimerFrame(phase, fileFrame == null ? null : fileFrame.metrics);
+        timerFrames.get().addLast(frame);
+        return frame;
+    }
+
+    /**
+     * Records time spent in a given phase on behalf of a given file
+     * @param file path (relative to CWD) to file, null if time should be counted in totals only
+     * @param phase phase
+     * @param nanos time spent
+     */
+    public void record(String file, Phase phase, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        totals.addAndGet(phase.ordinal(), nanos);
+        if (file != null) {
+            getFile(file).nanos.addAndGet(phase.ordinal(), nanos);
+        }
+        // recorded time is not part of enclosing timer
+        TimerFrame parent = timerFrames.get().peekLast();
+        if (parent != null) {
+            parent.nestedNanos += nanos;
+        }
+    }
+
+    /**
+     * Counts syntax errors in file being processed by current thread
+     * @param count number of errors
+     */
+    public void addSyntaxErrors(int count) {
+        if (!enabled || count == 0) {
+            return;
+        }
+        FileFrame frame = fileFrames.get().peekLast();
+        if (frame != null) {
+            frame.metrics.syntaxErrors.addAndGet(count);
+        }
+    }
+
+    /**
+     * Writes JSON report
+     * @param reportFile file to write report to
+     * @throws IOException
+     */
+    public void write(File reportFile) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(getReport(), writer);
+        }
+    }
+
+    /**
+     * @return report object, contains totals, percentiles of per-file phase times and slowest files
+     */
+    private Map<String, Object> getReport() {
+        List<FileMetrics> fileMetrics = new ArrayList<>(files.values());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("Files", fileMetrics.size());
+        report.put("WallTimeMillis", millis(System.nanoTime() - startTime));
+
+        Map<String, Object> phaseTotals = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            phaseTotals.put(phase.getName(), millis(totals.get(phase.ordinal())));
+        }
+        report.put("TotalMillis", phaseTotals);
+        long allocated = 0;
+        long syntaxErrors = 0;
+        for (FileMetrics metrics : fileMetrics) {
+            allocated += metrics.allocatedBytes.get();
+            syntaxErrors += metrics.syntaxErrors.get();
+        }
+        report.put("AllocatedBytes", allocated);
+        report.put("SyntaxErrors", syntaxErrors);
+
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("total", percentiles(fileMetrics, FileMetrics::getTotal));
+        for (Phase phase : Phase.values()) {
+            percentiles.put(phase.getName(), percentiles(fileMetrics, metrics -> metrics.nanos.get(phase.ordinal())));
+        }
+        report.put("PercentileMillis", percentiles);
+
+        fileMetrics.sort(Comparator.comparingLong(FileMetrics::getTotal).reversed());
+        List<Object> slowest = new ArrayList<>();
+        for (FileMetrics metrics : fileMetrics.subList(0, Math.min(top, fileMetrics.size()))) {
+            slowest.add(metrics.getReport());
+        }
+        report.put("Slowest", slowest);
+        return report;
+    }
+
+    /**
+     * @param fileMetrics metrics of all files
+     * @param value extracts value (nanoseconds) from file metrics
+     * @return 50th, 90th, 99th percentiles and maximum of given value over all files
+     */
+    private static Map<String, Object> percentiles(List<FileMetrics> fileMetrics,
+                                                   ToLongFunction<FileMetrics> value) {
+        long[] values = fileMetrics.stream().mapToLong(value).sorted().toArray();
+        Map<String, Object> ret = new LinkedHashMap<>();
+        ret.put("p50", millis(percentile(values, 50)));
+        ret.put("p90", millis(percentile(values, 90)));
+        ret.put("p99", millis(percentile(values, 99)));
+        ret.put("max", millis(values.length == 0 ? 0 : values[values.length - 1]));
+        return ret;
+    }
+
+    /**
+     * @param sorted sorted values
+     * @param percentile percentile (0-100)
+     * @return given percentile of values (nearest rank)
+     */
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+
+    private FileMetrics getFile(String file) {
+        return files.computeIfAbsent(file, FileMetrics::new);
+    }
+
+    /**
+     * @return number of bytes allocated by current thread or -1 if JVM can't tell
+     */
+    private long allocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Metrics of a single file
+     */
+    private static class FileMetrics {
+
+        final String file;
+        final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+        final AtomicLong allocatedBytes = new AtomicLong();
+        final AtomicLong syntaxErrors = new AtomicLong();
+
+        FileMetrics(String file) {
+            this.file = file;
+        }
+
+        long getTotal() {
+            long total = 0;
+            for (int i = 0; i < nanos.length(); i++) {
+                total += nanos.get(i);
+            }
+            return total;
+        }
+
+        Map<String, Object> getReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("File", file);
+            report.put("TotalMillis", millis(getTotal()));
+            Map<String, Object> phases = new LinkedHashMap<>();
+            for (Phase phase : Phase.values()) {
+                long value = nanos.get(phase.ordinal());
+                if (value > 0) {
+                    phases.put(phase.getName(), millis(value));
+                }
+            }
+            report.put("PhaseMillis", phases);
+            report.put("AllocatedBytes", allocatedBytes.get());
+            report.put("SyntaxErrors", syntaxErrors.get());
+            return report;
+        }
+    }
+
+    /**
+     * File being processed by thread
+     */
+    private static class FileFrame {
+
+        final FileMetrics metrics;
+        final long startBytes;
+
+        /**
+         * Bytes allocated while processing nested files
+         */
+        long nestedBytes;
+
+        FileFrame(FileMetrics metrics, long startBytes) {
+            this.metrics = metrics;
+            this.startBytes = startBytes;
+        }
+    }
+
+    /**
+     * Running phase timer
+     */
+    private class TimerFrame implements Timer {
+
+        final Phase phase;
+        final FileMetrics metrics;
+        final long start = System.nanoTime();
+
+        /**
+         * Time spent in nested timers
+         */
+        long nestedNanos;
+
+        TimerFrame(Phase phase, FileMetrics metrics) {
+            this.phase = phase;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - start;
+            Deque<TimerFrame> frames = timerFrames.get();
+            frames.removeLastOccurrence(this);
+            TimerFrame parent = frames.peekLast();
+            if (parent != null) {
+                parent.nestedNanos += elapsed;
+            }
+            long own = elapsed - nestedNanos;
+            totals.addAndGet(phase.ordinal(), own);
+            if (metrics != null) {
+                metrics.nanos.addAndGet(phase.ordinal(), own);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.sourcegraph.toolchain.core;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts graphed files, bytes, definitions and references and logs throttled progress summaries (with rate and
+ * estimated time remaining) on a fixed interval instead of logging each file. Per-file logging may be enabled
+ * when needed. Thread-safe, may be shared between graphing workers
+ */
+public class ProgressReporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressReporter.class);
+
+    /**
+     * Reporter that only counts
+     */
+    public static final ProgressReporter DISABLED = new ProgressReporter(0, false);
+
+    private static final String DURATION_FORMAT = "H:mm:ss";
+
+    private final long intervalMillis;
+
+    private final boolean logFiles;
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder defs = new LongAdder();
+    private final LongAdder refs = new LongAdder();
+
+    private volatile long totalFiles;
+    private volatile long totalBytes;
+    private volatile long startTime;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param intervalMillis interval (in milliseconds) between progress summaries, 0 disables summaries
+     * @param logFiles log each file being processed
+     */
+    public ProgressReporter(long intervalMillis, boolean logFiles) {
+        this.intervalMillis = intervalMillis;
+        this.logFiles = logFiles;
+    }
+
+    /**
+     * Resets counters and starts logging progress summaries
+     * @param totalFiles number of files to graph
+     * @param totalBytes total size of files to graph
+     */
+    public synchronized void start(long totalFiles, long totalBytes) {
+        files.reset();
+        bytes.reset();
+        defs.reset();
+        refs.reset();
+        this.totalFiles = totalFiles;
+        this.totalBytes = totalBytes;
+        this.startTime = System.nanoTime();
+        if (intervalMillis > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "progress-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops logging progress summaries and logs final one
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        LOGGER.info("Graphed {} files ({}) in {}: {} defs, {} refs",
+                files.sum(),
+                FileUtils.byteCountToDisplaySize(bytes.sum()),
+                DurationFormatUtils.formatDuration(getElapsedMillis(), DURATION_FORMAT),
+                defs.sum(),
+                refs.sum());
+    }
+
+    /**
+     * Called when file processing starts
+     * @param file file being processed
+     */
+    public void startFile(File file) {
+        if (logFiles) {
+            LOGGER.info("Processing {}", file);
+        }
+    }
+
+    /**
+     * Called when file processing ends
+     * @param size file size
+     */
+    public void endFile(long size) {
+        files.increment();
+        bytes.add(size);
+    }
+
+    /**
+     * @param count number of definitions produced
+     */
+    public void addDefs(long count) {
+        defs.add(count);
+    }
+
+    /**
+     * @param count number of references produced
+     */
+    public void addRefs(long count) {
+        refs.add(count);
+    }
+
+    /**
+     * Logs progress summary, estimated time remaining is based on number of bytes processed so far
+     */
+    private void report() {
+        long elapsed = Math.max(1, getElapsedMillis());
+        long doneFiles = files.sum();
+        long doneBytes = bytes.sum();
+        String eta = "unknown";
+        if (doneBytes > 0 && totalBytes >= doneBytes) {
+            eta = DurationFormatUtils.formatDuration((totalBytes - doneBytes) * elapsed / doneBytes, DURATION_FORMAT);
+        }
+        LOGGER.info("Graphed {}/{} files ({}/{}), {} defs, {} refs, {} files/s, {}/s, ETA {}",
+                doneFiles,
+                totalFiles,
+                FileUtils.byteCountToDisplaySize(doneBytes),
+                FileUtils.byteCountToDisplaySize(totalBytes),
+                defs.sum(),
+                refs.sum(),
+                doneFiles * 1000 / elapsed,
+                FileUtils.byteCountToDisplaySize(doneBytes * 1000 / elapsed),
+                eta);
+    }
+
+    private long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+}
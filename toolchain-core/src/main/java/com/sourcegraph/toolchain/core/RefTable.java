@@ -0,0 +1,359 @@
+package com.sourcegraph.toolchain.core;
+
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import com.sourcegraph.toolchain.core.objects.SymbolTable;
+
+import java.util.*;
+
+/**
+ * Columnar storage of references. Each reference is a row of parallel primitive arrays (file ID, start, end, def key
+ * ID, target ID, flags); definition targets (repo, unit type, unit) are interned, files and definition keys are
+ * referred to by file table and symbol table IDs. Duplicates are dropped using open-addressing hash of row numbers, as
+ * LinkedHashSet of references would do. Ref objects are made only when table is iterated. Not thread-safe
+ */
+public class RefTable {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private static final byte DEF = 1;
+    private static final byte CANDIDATE = 1 << 1;
+    private static final byte REMOVED = 1 << 2;
+
+    private int[] fileIds = new int[INITIAL_CAPACITY];
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int[] defKeyIds = new int[INITIAL_CAPACITY];
+    private int[] targetIds = new int[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Number of rows
+     */
+    private int size;
+
+    /**
+     * Number of removed rows
+     */
+    private int removed;
+
+    /**
+     * Open-addressing hash table of row numbers + 1, 0 marks empty slot. Length is a power of two, table is at most
+     * half full. Null if rows were modified and table has to be rebuilt
+     */
+    private int[] index = new int[INITIAL_CAPACITY << 1];
+
+    /**
+     * Interned definition targets, target 0 has no repo, unit type and unit
+     */
+    private final List<Target> targets = new ArrayList<>(Collections.singletonList(new Target(null, null, null)));
+    private final Map<Target, Integer> targetIdsByTarget = new HashMap<>();
+
+    private final SymbolTable symbols = SymbolTable.getInstance();
+    private final FileTable files = FileTable.getInstance();
+
+    public RefTable() {
+        targetIdsByTarget.put(targets.get(0), 0);
+    }
+
+    /**
+     * Adds reference unless table already contains equal one
+     * @param ref reference to add
+     * @return true if reference was added
+     */
+    public boolean add(Ref ref) {
+        if (size == starts.length) {
+            grow();
+        }
+        int row = size;
+        fileIds[row] = ref.file;
+        starts[row] = ref.start;
+        ends[row] = ref.end;
+        defKeyIds[row] = defKeyId(ref.defKey);
+        targetIds[row] = targetId(ref.defRepo, ref.defUnitType, ref.defUnit);
+        flags[row] = (byte) ((ref.def ? DEF : 0) | (ref.candidate ? CANDIDATE : 0));
+
+        if (index == null) {
+            rebuildIndex();
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(row) & mask; ; slot = (slot + 1) & mask) {
+            int existing = index[slot] - 1;
+            if (existing < 0) {
+                index[slot] = row + 1;
+                break;
+            }
+            if (sameRef(existing, row)) {
+                return false;
+            }
+        }
+        if (++size > index.length >> 1) {
+            index = new int[index.length << 1];
+            rebuildIndex();
+        }
+        return true;
+    }
+
+    /**
+     * @return number of references in table
+     */
+    public int size() {
+        return size - removed;
+    }
+
+    /**
+     * @return number of rows including removed ones, valid row numbers are in [0..rows) range
+     */
+    public int rows() {
+        return size;
+    }
+
+    /**
+     * @param row row number
+     * @return true if reference in a given row was removed
+     */
+    public boolean isRemoved(int row) {
+        return (flags[row] & REMOVED) != 0;
+    }
+
+    /**
+     * @param row row number
+     * @return true if reference in a given row is a candidate
+     */
+    public boolean isCandidate(int row) {
+        return (flags[row] & CANDIDATE) != 0;
+    }
+
+    /**
+     * @param row row number
+     * @return definition key of reference in a given row
+     */
+    public DefKey getDefKey(int row) {
+        return symbols.get(defKeyIds[row]);
+    }
+
+    /**
+     * @param row row number
+     * @return file of reference in a given row
+     */
+    public String getFile(int row) {
+        return files.getPath(fileIds[row]);
+    }
+
+    /**
+     * Changes definition key of reference in a given row
+     * @param row row number
+     * @param defKey new definition key
+     */
+    public void setDefKey(int row, DefKey defKey) {
+        defKeyIds[row] = defKeyId(defKey);
+        index = null;
+    }
+
+    /**
+     * Removes reference in a given row
+     * @param row row number
+     */
+    public void remove(int row) {
+        if (!isRemoved(row)) {
+            flags[row] |= REMOVED;
+            removed++;
+            index = null;
+        }
+    }
+
+    /**
+     * @param row row number
+     * @return reference object made of a given row
+     */
+    public Ref get(int row) {
+        Ref ref = new Ref();
+        ref.defKey = getDefKey(row);
+        Target target = targets.get(targetIds[row]);
+        ref.defRepo = target.repo;
+        ref.defUnitType = target.unitType;
+        ref.defUnit = target.unit;
+        ref.file = fileIds[row];
+        ref.start = starts[row];
+        ref.end = ends[row];
+        ref.def = (flags[row] & DEF) != 0;
+        ref.candidate = isCandidate(row);
+        return ref;
+    }
+
+    /**
+     * @return read-only view of references in insertion order, reference objects are made while iterating
+     */
+    public Collection<Ref> asCollection() {
+        return new AbstractCollection<Ref>() {
+            @Override
+            public Iterator<Ref> iterator() {
+                return new Iterator<Ref>() {
+
+                    private int row = skipRemoved(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return row < size;
+                    }
+
+                    @Override
+                    public Ref next() {
+                        if (row >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        Ref ref = get(row);
+                        row = skipRemoved(row + 1);
+                        return ref;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return RefTable.this.size();
+            }
+        };
+    }
+
+    private int skipRemoved(int row) {
+        while (row < size && isRemoved(row)) {
+            row++;
+        }
+        return row;
+    }
+
+    private int targetId(String repo, String unitType, String unit) {
+        if (repo == null && unitType == null && unit == null) {
+            return 0;
+        }
+        Target target = new Target(repo, unitType, unit);
+        Integer id = targetIdsByTarget.get(target);
+        if (id == null) {
+            id = targets.size();
+            targets.add(target);
+            targetIdsByTarget.put(target, id);
+        }
+        return id;
+    }
+
+    /**
+     * @param defKey definition key
+     * @return symbol table ID of key, 0 for null key
+     */
+    private int defKeyId(DefKey defKey) {
+        if (defKey == null) {
+            return 0;
+        }
+        int id = defKey.getId();
+        if (id == 0 || symbols.get(id) != defKey) {
+            // key is not canonical
+            id = DefKey.of(defKey.getOrigin(), defKey.getPath()).getId();
+        }
+        return id;
+    }
+
+    /**
+     * Same fields as Ref.hashCode() takes into account
+     */
+    private int hash(int row) {
+        int result = defKeyIds[row];
+        result = 31 * result + targetIds[row];
+        result = 31 * result + fileIds[row];
+        result = 31 * result + starts[row];
+        result = 31 * result + ends[row];
+        result = 31 * result + (flags[row] & DEF);
+        // spread bits, low ones select slot
+        return result ^ (result >>> 16);
+    }
+
+    /**
+     * Same fields as Ref.equals() takes into account
+     */
+    private boolean sameRef(int a, int b) {
+        return starts[a] == starts[b] &&
+                ends[a] == ends[b] &&
+                defKeyIds[a] == defKeyIds[b] &&
+                fileIds[a] == fileIds[b] &&
+                targetIds[a] == targetIds[b] &&
+                (flags[a] & DEF) == (flags[b] & DEF);
+    }
+
+    private void grow() {
+        int capacity = starts.length << 1;
+        fileIds = Arrays.copyOf(fileIds, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        defKeyIds = Arrays.copyOf(defKeyIds, capacity);
+        targetIds = Arrays.copyOf(targetIds, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    /**
+     * Fills hash table with rows that are not removed. Rows that became equal after modification stay in table,
+     * index keeps the first one
+     */
+    private void rebuildIndex() {
+        if (index == null) {
+            int capacity = INITIAL_CAPACITY << 1;
+            while (capacity >> 1 < size + 1) {
+                capacity <<= 1;
+            }
+            index = new int[capacity];
+        } else {
+            Arrays.fill(index, 0);
+        }
+        int mask = index.length - 1;
+        for (int row = 0; row < size; row++) {
+            if (isRemoved(row)) {
+                continue;
+            }
+            int slot = hash(row) & mask;
+            while (index[slot] != 0) {
+                if (sameRef(index[slot] - 1, row)) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (index[slot] == 0) {
+                index[slot] = row + 1;
+            }
+        }
+    }
+
+    /**
+     * Definition's repository, unit type and unit
+     */
+    private static class Target {
+
+        final String repo;
+        final String unitType;
+        final String unit;
+
+        Target(String repo, String unitType, String unit) {
+            this.repo = repo;
+            this.unitType = unitType;
+            this.unit = unit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Target target = (Target) o;
+
+            if (repo != null ? !repo.equals(target.repo) : target.repo != null) return false;
+            if (unitType != null ? !unitType.equals(target.unitType) : target.unitType != null) return false;
+            return unit != null ? unit.equals(target.unit) : target.unit == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = repo != null ? repo.hashCode() : 0;
+            result = 31 * result + (unitType != null ? unitType.hashCode() : 0);
+            result = 31 * result + (unit != null ? unit.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Implementation of graph writer used by graphing worker process, writes partial graph of a shard of source unit
+ * files to a directory. References (candidate references included, unresolved) are written as they are produced,
+ * definitions are written once file that produced them is processed, since languages may fill them in after
+ * emitting. Both are written one JSON object per line, keeping all the fields. Symbols contributed by shard files are
+ * written by {@link #writeSymbols(Map)} when graphing is complete, so that coordinator could resolve candidate
+ * references made by one shard to definitions made by another one.
+ * Thread-safe, may be shared between graphing workers
+ */
+public class ShardGraphWriter implements GraphWriter {
+
+    private static final String DEFS_FILE = "defs.json";
+    private static final String REFS_FILE = "refs.json";
+    private static final String SYMBOLS_FILE = "symbols.json";
+
+    /**
+     * Keeps all the fields of definitions and references
+     */
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(DefKey.class, new DefKey.JSONAdapter())
+            .registerTypeAdapterFactory(FileTable.JSON_FACTORY)
+            .create();
+
+    private final File dir;
+
+    private final Writer defsWriter;
+
+    private final Writer refsWriter;
+
+    /**
+     * Definitions of files being processed (file ID => definitions)
+     */
+    private final Map<Integer, Collection<Def>> pendingDefs = new HashMap<>();
+
+    /**
+     * @param dir directory to write partial graph to, must exist
+     * @throws IOException
+     */
+    public ShardGraphWriter(File dir) throws IOException {
+        this.dir = dir;
+        this.defsWriter = Files.newBufferedWriter(new File(dir, DEFS_FILE).toPath(), StandardCharsets.UTF_8);
+        this.refsWriter = Files.newBufferedWriter(new File(dir, REFS_FILE).toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void writeRef(Ref ref) {
+        write(ref, refsWriter);
+    }
+
+    @Override
+    public synchronized void writeDef(Def def) {
+        Collection<Def> fileDefs = pendingDefs.get(def.file);
+        if (fileDefs == null) {
+            fileDefs = new ArrayList<>();
+            pendingDefs.put(def.file, fileDefs);
+        }
+        fileDefs.add(def);
+    }
+
+    @Override
+    public synchronized void endFile(String file) {
+        Collection<Def> fileDefs = pendingDefs.remove(FileTable.getInstance().intern(file));
+        if (fileDefs != null) {
+            fileDefs.forEach(def -> write(def, defsWriter));
+        }
+    }
+
+    /**
+     * Closes files of definitions and references
+     */
+    @Override
+    public synchronized void flush() {
+        pendingDefs.values().forEach(fileDefs -> fileDefs.forEach(def -> write(def, defsWriter)));
+        pendingDefs.clear();
+        try {
+            defsWriter.close();
+            refsWriter.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes symbols contributed by shard files
+     * @param symbols symbols (path relative to CWD => symbols in JSON form)
+     * @throws IOException
+     */
+    public void writeSymbols(Map<String, JsonElement> symbols) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(new File(dir, SYMBOLS_FILE).toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(symbols, writer);
+        }
+    }
+
+    /**
+     * @param dir directory partial graph was written to
+     * @return symbols contributed by shard files (path relative to CWD => symbols in JSON form)
+     * @throws IOException
+     */
+    public static Map<String, JsonElement> readSymbols(File dir) throws IOException {
+        File file = new File(dir, SYMBOLS_FILE);
+        if (!file.isFile()) {
+            return Collections.emptyMap();
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Map<String, JsonElement> symbols = GSON.fromJson(reader,
+                    new TypeToken<Map<String, JsonElement>>(){}.getType());
+            return symbols == null ? Collections.emptyMap() : symbols;
+        }
+    }
+
+    /**
+     * Writes definitions and references of partial graph to a given writer and notifies writer that files
+     * of partial graph are complete
+     * @param dir directory partial graph was written to
+     * @param writer graph writer to write definitions and references to
+     * @throws IOException
+     */
+    public static void replay(File dir, GraphWriter writer) throws IOException {
+        Set<Integer> files = new LinkedHashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(new File(dir, DEFS_FILE).toPath(),
+                StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Def def = GSON.fromJson(line, Def.class);
+                files.add(def.file);
+                writer.writeDef(def);
+            }
+        }
+        try (BufferedReader reader = Files.newBufferedReader(new File(dir, REFS_FILE).toPath(),
+                StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Ref ref = GSON.fromJson(line, Ref.class);
+                files.add(ref.file);
+                writer.writeRef(ref);
+            }
+        }
+        // each file belongs to a single shard
+        for (Integer file : files) {
+            writer.endFile(FileTable.getInstance().getPath(file));
+        }
+    }
+
+    private static void write(Object item, Writer writer) {
+        try {
+            GSON.toJson(item, writer);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
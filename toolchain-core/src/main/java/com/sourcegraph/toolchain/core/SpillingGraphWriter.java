@@ -0,0 +1,460 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import com.sourcegraph.toolchain.language.Language;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Implementation of graph writer that keeps definitions and references in memory until their estimated size
+ * exceeds given threshold, then sorts them and spills sorted runs to temporary files. Definitions are spilled only
+ * once file that produced them is processed, since languages may fill them in after emitting. When graph is complete,
+ * runs are merged, duplicate references are dropped and redefinitions are reported the same way GraphData does (first
+ * definition wins). Produces compact JSON object {"Refs": [...], "Defs": [...]}, references are ordered by file and
+ * offset, definitions are ordered by key.
+ * Thread-safe, may be shared between graphing workers
+ */
+public class SpillingGraphWriter implements GraphWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingGraphWriter.class);
+
+    /**
+     * Estimated heap size of a reference (object, key and its share of interned strings)
+     */
+    private static final int REF_BYTES = 128;
+
+    /**
+     * Estimated heap size of a definition (object, key, name and formatting data)
+     */
+    private static final int DEF_BYTES = 512;
+
+    private static final FileTable FILES = FileTable.getInstance();
+
+    private static final Comparator<Ref> REF_ORDER = (a, b) -> {
+        int result = a.file == b.file ? 0 :
+                compare(FILES.getPath(a.file), FILES.getPath(b.file));
+        if (result != 0) return result;
+        result = Integer.compare(a.start, b.start);
+        if (result != 0) return result;
+        result = Integer.compare(a.end, b.end);
+        if (result != 0) return result;
+        result = compare(a.defKey, b.defKey);
+        if (result != 0) return result;
+        result = compare(a.defRepo, b.defRepo);
+        if (result != 0) return result;
+        result = compare(a.defUnitType, b.defUnitType);
+        if (result != 0) return result;
+        result = compare(a.defUnit, b.defUnit);
+        if (result != 0) return result;
+        return Boolean.compare(a.def, b.def);
+    };
+
+    private static final Comparator<SpooledDef> DEF_ORDER = (a, b) -> {
+        int result = compare(a.def.defKey, b.def.defKey);
+        return result != 0 ? result : Long.compare(a.seq, b.seq);
+    };
+
+    private final Language language;
+
+    private final Metrics metrics;
+
+    private final Writer out;
+
+    private final long maxBufferedBytes;
+
+    /**
+     * Directory to spill runs to, null means system temporary directory
+     */
+    private final File spillDir;
+
+    private final Gson gson = JSONUtil.compactGson();
+
+    /**
+     * Used to spill runs, keeps all the fields
+     */
+    private final Gson spoolGson = new GsonBuilder()
+            .registerTypeAdapter(DefKey.class, new DefKey.JSONAdapter())
+            .registerTypeAdapterFactory(FileTable.JSON_FACTORY)
+            .create();
+
+    private List<Ref> refs = new ArrayList<>();
+    private List<SpooledDef> defs = new ArrayList<>();
+
+    /**
+     * Definitions of files being processed (file ID => definitions), not spilled until file is processed
+     */
+    private final Map<Integer, List<SpooledDef>> pendingDefs = new HashMap<>();
+
+    /**
+     * Estimated size of buffered definitions and references of processed files
+     */
+    private long bufferedBytes;
+
+    /**
+     * Number of definitions written so far, used to keep the first of redefined ones
+     */
+    private long defCounter;
+
+    private final List<File> refRuns = new ArrayList<>();
+    private final List<File> defRuns = new ArrayList<>();
+
+    /**
+     * @param language language to resolve candidate references with
+     * @param out writer to write graph to
+     * @param metrics metrics to record resolution and serialization time to
+     * @param maxBufferedBytes approximate size of definitions and references to keep in memory
+     * @param spillDir directory to spill sorted runs to, null means system temporary directory
+     */
+    public SpillingGraphWriter(Language language,
+                               Writer out,
+                               Metrics metrics,
+                               long maxBufferedBytes,
+                               File spillDir) {
+        this.language = language;
+        this.metrics = metrics;
+        this.out = out;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.spillDir = spillDir;
+    }
+
+    @Override
+    public synchronized void writeRef(Ref ref) {
+        refs.add(ref);
+        bufferedBytes += REF_BYTES;
+        spillIfNeeded();
+    }
+
+    @Override
+    public synchronized void writeDef(Def def) {
+        List<SpooledDef> fileDefs = pendingDefs.get(def.file);
+        if (fileDefs == null) {
+            fileDefs = new ArrayList<>();
+            pendingDefs.put(def.file, fileDefs);
+        }
+        fileDefs.add(new SpooledDef(defCounter++, def));
+    }
+
+    @Override
+    public synchronized void endFile(String file) {
+        List<SpooledDef> fileDefs = pendingDefs.remove(FILES.intern(file));
+        if (fileDefs == null) {
+            return;
+        }
+        defs.addAll(fileDefs);
+        bufferedBytes += (long) DEF_BYTES * fileDefs.size();
+        spillIfNeeded();
+    }
+
+    /**
+     * Merges spilled runs with buffered definitions and references and writes graph to output
+     */
+    @Override
+    public synchronized void flush() {
+        List<Run<Ref>> refSources = new ArrayList<>();
+        List<Run<SpooledDef>> defSources = new ArrayList<>();
+        try {
+            pendingDefs.values().forEach(defs::addAll);
+            pendingDefs.clear();
+            for (File run : refRuns) {
+                refSources.add(new FileRun<>(run, Ref.class));
+            }
+            refs.sort(REF_ORDER);
+            refSources.add(new MemoryRun<>(refs));
+            for (File run : defRuns) {
+                defSources.add(new FileRun<>(run, SpooledDef.class));
+            }
+            defs.sort(DEF_ORDER);
+            defSources.add(new MemoryRun<>(defs));
+            LOGGER.debug("Merging {} reference runs and {} definition runs", refSources.size(), defSources.size());
+
+            out.write("{\"Refs\":[");
+            writeRefs(new Merge<>(refSources, REF_ORDER));
+            out.write("],\"Defs\":[");
+            writeDefs(new Merge<>(defSources, DEF_ORDER));
+            out.write("]}");
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            refSources.forEach(IOUtils::closeQuietly);
+            defSources.forEach(IOUtils::closeQuietly);
+            refRuns.forEach(FileUtils::deleteQuietly);
+            defRuns.forEach(FileUtils::deleteQuietly);
+            refRuns.clear();
+            defRuns.clear();
+            refs = new ArrayList<>();
+            defs = new ArrayList<>();
+            bufferedBytes = 0;
+        }
+    }
+
+    /**
+     * Writes merged references, skipping duplicates and resolving candidates
+     * @param merge merged reference runs
+     * @throws IOException
+     */
+    private void writeRefs(Merge<Ref> merge) throws IOException {
+        CandidateResolver resolver = new CandidateResolver(language, metrics);
+        List<Ref> candidates = new ArrayList<>();
+        boolean hasRefs = false;
+        Ref prev = null;
+        while (merge.hasNext()) {
+            Ref ref = merge.next();
+            if (ref.equals(prev)) {
+                continue;
+            }
+            prev = ref;
+            if (ref.candidate) {
+                candidates.add(ref);
+                if (candidates.size() == CandidateResolver.BATCH_SIZE) {
+                    hasRefs = writeRefs(resolver.resolve(candidates), hasRefs);
+                    candidates.clear();
+                }
+            } else {
+                hasRefs = writeRefs(Collections.singletonList(ref), hasRefs);
+            }
+        }
+        writeRefs(resolver.resolve(candidates), hasRefs);
+    }
+
+    /**
+     * @param refs references to write
+     * @param hasRefs true if some references were written before
+     * @return true if some references were written
+     * @throws IOException
+     */
+    private boolean writeRefs(Collection<Ref> refs, boolean hasRefs) throws IOException {
+        for (Ref ref : refs) {
+            long start = System.nanoTime();
+            if (hasRefs) {
+                out.write(',');
+            }
+            gson.toJson(ref, out);
+            hasRefs = true;
+            metrics.record(FILES.getPath(ref.file), Metrics.Phase.SERIALIZE, System.nanoTime() - start);
+        }
+        return hasRefs;
+    }
+
+    /**
+     * Writes merged definitions, reports and skips redefinitions
+     * @param merge merged definition runs
+     * @throws IOException
+     */
+    private void writeDefs(Merge<SpooledDef> merge) throws IOException {
+        boolean hasDefs = false;
+        Def prev = null;
+        while (merge.hasNext()) {
+            Def def = merge.next().def;
+            if (prev != null && prev.defKey.equals(def.defKey)) {
+                LOGGER.warn("{} already defined in {} at {}:{}, redefinition attempt in {} at {}:{}",
+                        prev.defKey.getPath(),
+                        FILES.getPath(prev.file),
+                        prev.defStart,
+                        prev.defEnd,
+                        FILES.getPath(def.file),
+                        def.defStart,
+                        def.defEnd);
+                continue;
+            }
+            prev = def;
+            long start = System.nanoTime();
+            if (hasDefs) {
+                out.write(',');
+            }
+            gson.toJson(def, out);
+            hasDefs = true;
+            metrics.record(FILES.getPath(def.file), Metrics.Phase.SERIALIZE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Spills buffered definitions and references to sorted runs when buffer is full
+     */
+    private void spillIfNeeded() {
+        if (bufferedBytes < maxBufferedBytes) {
+            return;
+        }
+        try {
+            if (!refs.isEmpty()) {
+                refs.sort(REF_ORDER);
+                refRuns.add(spill(refs, "srclib-refs"));
+                refs = new ArrayList<>();
+            }
+            if (!defs.isEmpty()) {
+                defs.sort(DEF_ORDER);
+                defRuns.add(spill(defs, "srclib-defs"));
+                defs = new ArrayList<>();
+            }
+            LOGGER.debug("Spilled {} reference runs and {} definition runs so far", refRuns.size(), defRuns.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bufferedBytes = 0;
+    }
+
+    /**
+     * @param items sorted items
+     * @param prefix temporary file name prefix
+     * @return run file that holds given items, one JSON object per line
+     * @throws IOException
+     */
+    private File spill(List<?> items, String prefix) throws IOException {
+        File run = File.createTempFile(prefix, ".run", spillDir);
+        try (Writer writer = Files.newBufferedWriter(run.toPath(), StandardCharsets.UTF_8)) {
+            for (Object item : items) {
+                spoolGson.toJson(item, writer);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private static int compare(String a, String b) {
+        if (a == null) {
+            return b == null ? 0 : -1;
+        }
+        return b == null ? 1 : a.compareTo(b);
+    }
+
+    private static int compare(DefKey a, DefKey b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null || b == null) {
+            return a == null ? -1 : 1;
+        }
+        int result = compare(a.getOrigin() == null ? null : a.getOrigin().toString(),
+                b.getOrigin() == null ? null : b.getOrigin().toString());
+        return result != 0 ? result : compare(a.getPath(), b.getPath());
+    }
+
+    /**
+     * Definition with its sequence number
+     */
+    private static class SpooledDef {
+        long seq;
+        Def def;
+
+        SpooledDef(long seq, Def def) {
+            this.seq = seq;
+            this.def = def;
+        }
+    }
+
+    /**
+     * Sorted run of items
+     */
+    private interface Run<T> extends Closeable {
+
+        /**
+         * @return next item or null if run is exhausted
+         * @throws IOException
+         */
+        T next() throws IOException;
+    }
+
+    private static class MemoryRun<T> implements Run<T> {
+
+        private final Iterator<T> iterator;
+
+        MemoryRun(List<T> items) {
+            this.iterator = items.iterator();
+        }
+
+        @Override
+        public T next() {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private class FileRun<T> implements Run<T> {
+
+        private final BufferedReader reader;
+        private final Class<T> type;
+
+        FileRun(File file, Class<T> type) throws IOException {
+            this.reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+            this.type = type;
+        }
+
+        @Override
+        public T next() throws IOException {
+            String line = reader.readLine();
+            return line == null ? null : spoolGson.fromJson(line, type);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * K-way merge of sorted runs
+     */
+    private static class Merge<T> {
+
+        private final PriorityQueue<Head<T>> heads;
+
+        Merge(List<Run<T>> runs, Comparator<? super T> order) throws IOException {
+            heads = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                int result = order.compare(a.item, b.item);
+                // earlier runs first, keeps the first of equal items
+                return result != 0 ? result : Integer.compare(a.index, b.index);
+            });
+            for (int i = 0; i < runs.size(); i++) {
+                Run<T> run = runs.get(i);
+                T item = run.next();
+                if (item != null) {
+                    heads.add(new Head<>(run, i, item));
+                }
+            }
+        }
+
+        boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        T next() throws IOException {
+            Head<T> head = heads.poll();
+            T item = head.item;
+            head.item = head.run.next();
+            if (head.item != null) {
+                heads.add(head);
+            }
+            return item;
+        }
+    }
+
+    private static class Head<T> {
+
+        final Run<T> run;
+        final int index;
+        T item;
+
+        Head(Run<T> run, int index, T item) {
+            this.run = run;
+            this.index = index;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.sourcegraph.toolchain.core;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import com.sourcegraph.toolchain.language.Language;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Implementation of graph writer that streams graph as JSON while definitions and references are produced.
+ * References are written as soon as file that produced them is processed, only references of files being processed
+ * are kept in memory (to eliminate duplicates). Definitions of files being processed are kept in memory as well,
+ * since languages may fill them in after emitting. Definitions and candidate references of processed files are
+ * spooled to temporary files, definitions are appended to output and candidate references are resolved when graph
+ * is complete.
+ * Key and location of each written definition are kept in memory to detect redefinitions, so memory still grows
+ * with the number of definitions (see {@link SpillingGraphWriter} for bounded memory).
+ * Produces compact JSON object {"Refs": [...], "Defs": [...]}.
+ * Thread-safe, may be shared between graphing workers
+ */
+public class StreamingGraphWriter implements GraphWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingGraphWriter.class);
+
+    private final Language language;
+
+    private final Metrics metrics;
+
+    private final Writer out;
+
+    private final Gson gson = JSONUtil.compactGson();
+
+    private final FileTable fileTable = FileTable.getInstance();
+
+    /**
+     * Used to spool candidate references, keeps all the fields
+     */
+    private final Gson spoolGson = new GsonBuilder()
+            .registerTypeAdapter(DefKey.class, new DefKey.JSONAdapter())
+            .registerTypeAdapterFactory(FileTable.JSON_FACTORY)
+            .create();
+
+    /**
+     * Definitions written so far (key => location), used to detect redefinitions. Grows with the number of
+     * definitions
+     */
+    private final Map<DefKey, Location> defs = new HashMap<>();
+
+    /**
+     * References of files being processed (file ID => references)
+     */
+    private final Map<Integer, Collection<Ref>> pendingRefs = new HashMap<>();
+
+    /**
+     * Definitions of files being processed (file ID => definitions)
+     */
+    private final Map<Integer, Collection<Def>> pendingDefs = new HashMap<>();
+
+    private final File defsFile;
+    private final Writer defsWriter;
+    private final File candidatesFile;
+    private final Writer candidatesWriter;
+
+    private boolean hasRefs;
+    private boolean hasDefs;
+
+    /**
+     * @param language language to resolve candidate references with
+     * @param out writer to stream graph to
+     * @throws IOException
+     */
+    public StreamingGraphWriter(Language language, Writer out) throws IOException {
+        this(language, out, Metrics.DISABLED);
+    }
+
+    /**
+     * @param language language to resolve candidate references with
+     * @param out writer to stream graph to
+     * @param metrics metrics to record resolution and serialization time to
+     * @throws IOException
+     */
+    public StreamingGraphWriter(Language language, Writer out, Metrics metrics) throws IOException {
+        this.language = language;
+        this.metrics = metrics;
+        this.out = out;
+        this.defsFile = File.createTempFile("srclib-defs", ".json");
+        this.defsWriter = Files.newBufferedWriter(defsFile.toPath(), StandardCharsets.UTF_8);
+        this.candidatesFile = File.createTempFile("srclib-candidates", ".json");
+        this.candidatesWriter = Files.newBufferedWriter(candidatesFile.toPath(), StandardCharsets.UTF_8);
+        this.out.write("{\"Refs\":[");
+    }
+
+    @Override
+    public synchronized void writeRef(Ref ref) {
+        Collection<Ref> refs = pendingRefs.get(ref.file);
+        if (refs == null) {
+            refs = new LinkedHashSet<>();
+            pendingRefs.put(ref.file, refs);
+        }
+        refs.add(ref);
+    }
+
+    @Override
+    public synchronized void writeDef(Def def) {
+        Location prev = defs.get(def.defKey);
+        if (prev != null) {
+            LOGGER.warn("{} already defined in {} at {}:{}, redefinition attempt in {} at {}:{}",
+                    def.defKey.getPath(),
+                    fileTable.getPath(prev.file),
+                    prev.start,
+                    prev.end,
+                    fileTable.getPath(def.file),
+                    def.defStart,
+                    def.defEnd);
+            return;
+        }
+        defs.put(def.defKey, new Location(def));
+        Collection<Def> fileDefs = pendingDefs.get(def.file);
+        if (fileDefs == null) {
+            fileDefs = new ArrayList<>();
+            pendingDefs.put(def.file, fileDefs);
+        }
+        fileDefs.add(def);
+    }
+
+    @Override
+    public synchronized void endFile(String file) {
+        int fileId = fileTable.intern(file);
+        Collection<Def> fileDefs = pendingDefs.remove(fileId);
+        Collection<Ref> refs = pendingRefs.remove(fileId);
+        try {
+            if (fileDefs != null) {
+                for (Def def : fileDefs) {
+                    writeToSpool(def);
+                }
+            }
+            if (refs == null) {
+                return;
+            }
+            for (Ref ref : refs) {
+                if (ref.candidate) {
+                    // candidates can be resolved only when all the definitions are known
+                    candidatesWriter.write(spoolGson.toJson(ref));
+                    candidatesWriter.write('\n');
+                } else {
+                    writeToOutput(ref);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes remaining references, resolves candidate references and appends definitions to output
+     */
+    @Override
+    public synchronized void flush() {
+        Set<Integer> files = new LinkedHashSet<>(pendingDefs.keySet());
+        files.addAll(pendingRefs.keySet());
+        for (Integer file : files) {
+            endFile(fileTable.getPath(file));
+        }
+        try {
+            candidatesWriter.close();
+            writeCandidates();
+            defsWriter.close();
+            out.write("],\"Defs\":[");
+            try (Reader reader = Files.newBufferedReader(defsFile.toPath(), StandardCharsets.UTF_8)) {
+                IOUtils.copy(reader, out);
+            }
+            out.write("]}");
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            FileUtils.deleteQuietly(defsFile);
+            FileUtils.deleteQuietly(candidatesFile);
+        }
+    }
+
+    /**
+     * Resolves spooled candidate references and writes resolved ones
+     * @throws IOException
+     */
+    private void writeCandidates() throws IOException {
+        CandidateResolver resolver = new CandidateResolver(language, metrics);
+        List<Ref> batch = new ArrayList<>(CandidateResolver.BATCH_SIZE);
+        try (BufferedReader reader = Files.newBufferedReader(candidatesFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                batch.add(spoolGson.fromJson(line, Ref.class));
+                if (batch.size() == CandidateResolver.BATCH_SIZE) {
+                    writeCandidates(resolver, batch);
+                    batch.clear();
+                }
+            }
+        }
+        writeCandidates(resolver, batch);
+    }
+
+    /**
+     * Resolves batch of candidate references and writes resolved ones
+     * @param resolver candidate resolver
+     * @param batch candidate references
+     * @throws IOException
+     */
+    private void writeCandidates(CandidateResolver resolver, List<Ref> batch) throws IOException {
+        for (Ref ref : resolver.resolve(batch)) {
+            writeToOutput(ref);
+        }
+    }
+
+    /**
+     * Writes definition to definitions spool file
+     * @param def definition to write
+     * @throws IOException
+     */
+    private void writeToSpool(Def def) throws IOException {
+        long start = System.nanoTime();
+        if (hasDefs) {
+            defsWriter.write(',');
+        }
+        gson.toJson(def, defsWriter);
+        hasDefs = true;
+        metrics.record(fileTable.getPath(def.file), Metrics.Phase.SERIALIZE, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes reference to output
+     * @param ref reference to write
+     * @throws IOException
+     */
+    private void writeToOutput(Ref ref) throws IOException {
+        long start = System.nanoTime();
+        if (hasRefs) {
+            out.write(',');
+        }
+        gson.toJson(ref, out);
+        hasRefs = true;
+        metrics.record(fileTable.getPath(ref.file), Metrics.Phase.SERIALIZE, System.nanoTime() - start);
+    }
+
+    /**
+     * Location of definition, kept to report redefinitions
+     */
+    private static class Location {
+        int file;
+        int start;
+        int end;
+
+        Location(Def def) {
+            this.file = def.file;
+            this.start = def.defStart;
+            this.end = def.defEnd;
+        }
+    }
+}
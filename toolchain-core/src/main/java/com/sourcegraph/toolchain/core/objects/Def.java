@@ -1,9 +1,15 @@
 package com.sourcegraph.toolchain.core.objects;
 
-import com.google.gson.*;
-import com.sourcegraph.toolchain.core.PathUtil;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.sourcegraph.toolchain.core.FileTable;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * Definition object
@@ -30,9 +36,9 @@ public class Def {
     public String name;
 
     /**
-     * Source file
+     * Source file ID, see {@link FileTable}
      */
-    public String file;
+    public int file;
 
     /**
      * Definition start
@@ -108,36 +114,113 @@ public class Def {
     }
 
     /**
-     * JSON serialization rules for definition objects
+     * JSON serialization rules for definition objects. Writes definitions directly to JSON stream and reads them
+     * back from graph output
      */
-    public static class JSONSerializer implements JsonSerializer<Def> {
+    public static class JSONAdapter extends TypeAdapter<Def> {
+
+        /**
+         * Factory to register adapter with, provides adapter with definition data serializer
+         */
+        public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                if (type.getRawType() != Def.class) {
+                    return null;
+                }
+                return (TypeAdapter<T>) new JSONAdapter(gson.getAdapter(DefData.class));
+            }
+        };
+
+        private final TypeAdapter<DefData> dataAdapter;
+
+        private final FileTable fileTable = FileTable.getInstance();
+
+        private JSONAdapter(TypeAdapter<DefData> dataAdapter) {
+            this.dataAdapter = dataAdapter;
+        }
 
         @Override
-        public JsonElement serialize(Def sym, Type arg1, JsonSerializationContext arg2) {
-            JsonObject object = new JsonObject();
+        public void write(JsonWriter out, Def sym) throws IOException {
+            out.beginObject();
 
-            if (sym.file != null) {
-                object.add("File", new JsonPrimitive(PathUtil.relativizeCwd(sym.file)));
+            if (sym.file != 0) {
+                out.name("File").value(fileTable.getPath(sym.file));
             }
 
-            object.add("Name", new JsonPrimitive(sym.name));
+            out.name("Name").value(sym.name);
 
-            object.add("DefStart", new JsonPrimitive(sym.defStart));
-            object.add("DefEnd", new JsonPrimitive(sym.defEnd));
+            out.name("DefStart").value(sym.defStart);
+            out.name("DefEnd").value(sym.defEnd);
 
-            object.add("Kind", new JsonPrimitive(sym.kind));
+            out.name("Kind").value(sym.kind);
 
-            object.add("Exported", new JsonPrimitive(sym.exported));
-            object.add("Local", new JsonPrimitive(sym.local));
-            object.add("Test", new JsonPrimitive(sym.test));
+            out.name("Exported").value(sym.exported);
+            out.name("Local").value(sym.local);
+            out.name("Test").value(sym.test);
 
-            object.add("Path", new JsonPrimitive(sym.defKey.formatPath()));
-            object.add("TreePath", new JsonPrimitive(sym.defKey.formatTreePath()));
+            out.name("Path").value(sym.defKey.formatPath());
+            out.name("TreePath").value(sym.defKey.formatTreePath());
 
-            object.add("Data", arg2.serialize(sym.defData));
+            out.name("Data");
+            dataAdapter.write(out, sym.defData);
 
-            return object;
+            out.endObject();
         }
 
+        @Override
+        public Def read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Def sym = new Def();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "File":
+                        sym.file = fileTable.intern(in.nextString());
+                        break;
+                    case "Name":
+                        sym.name = in.nextString();
+                        break;
+                    case "DefStart":
+                        sym.defStart = in.nextInt();
+                        break;
+                    case "DefEnd":
+                        sym.defEnd = in.nextInt();
+                        break;
+                    case "Kind":
+                        sym.kind = in.nextString();
+                        break;
+                    case "Exported":
+                        sym.exported = in.nextBoolean();
+                        break;
+                    case "Local":
+                        sym.local = in.nextBoolean();
+                        break;
+                    case "Test":
+                        sym.test = in.nextBoolean();
+                        break;
+                    case "Path":
+                        sym.defKey = DefKey.of(null, in.nextString());
+                        break;
+                    case "Data":
+                        sym.defData = dataAdapter.read(in);
+                        break;
+                    default:
+                        // TreePath is derived from Path
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return sym;
+        }
     }
 }
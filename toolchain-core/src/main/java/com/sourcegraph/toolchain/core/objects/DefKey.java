@@ -1,20 +1,45 @@
 package com.sourcegraph.toolchain.core.objects;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.net.URI;
 
 /**
- * Definition key
+ * Definition key. Keys are interned by symbol table, use {@link #of(URI, String)} to obtain canonical instance
  */
 public class DefKey {
     private final URI origin;
     private final String path;
 
+    /**
+     * ID assigned by symbol table
+     */
+    private final transient int id;
+
+    /**
+     * Cached hash code, 0 if not computed yet
+     */
+    private transient int hash;
 
-    public DefKey(URI origin, String path) {
+    DefKey(URI origin, String path, int id) {
         this.origin = origin;
         this.path = path;
+        this.id = id;
+        this.hash = hash(origin, path);
+    }
+
+    /**
+     * @param origin definition origin, null for definitions defined in the current source unit
+     * @param path definition path
+     * @return canonical key for given origin and path
+     */
+    public static DefKey of(URI origin, String path) {
+        return SymbolTable.getInstance().intern(origin, path);
     }
 
     public String formatPath() {
@@ -32,6 +57,9 @@ public class DefKey {
 
         DefKey defKey = (DefKey) o;
 
+        // equal canonical keys are identical, falling back to comparison of fields for keys made before
+        // symbol table was cleared
+        if (hashCode() != defKey.hashCode()) return false;
         if (origin != null ? !origin.equals(defKey.origin) : defKey.origin != null) return false;
         if (path != null ? !path.equals(defKey.path) : defKey.path != null) return false;
 
@@ -40,6 +68,14 @@ public class DefKey {
 
     @Override
     public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            result = hash = hash(origin, path);
+        }
+        return result;
+    }
+
+    static int hash(URI origin, String path) {
         int result = origin != null ? origin.hashCode() : 0;
         result = 31 * result + (path != null ? path.hashCode() : 0);
         return result;
@@ -56,6 +92,13 @@ public class DefKey {
         return path;
     }
 
+    /**
+     * @return dense integer ID assigned by symbol table, may be used as array index
+     */
+    public int getId() {
+        return id;
+    }
+
     @Override
     public String toString() {
         return "DefKey{" +
@@ -63,4 +106,55 @@ public class DefKey {
                 "path='" + path + '\'' +
                 '}';
     }
+
+    /**
+     * Keeps origin and path of definition key, reads canonical keys. Used where keys are stored and read back
+     * (graph cache, spool files)
+     */
+    public static class JSONAdapter extends TypeAdapter<DefKey> {
+
+        @Override
+        public void write(JsonWriter out, DefKey key) throws IOException {
+            if (key == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            if (key.origin != null) {
+                out.name("origin").value(key.origin.toString());
+            }
+            out.name("path").value(key.path);
+            out.endObject();
+        }
+
+        @Override
+        public DefKey read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            URI origin = null;
+            String path = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "origin":
+                        origin = URI.create(in.nextString());
+                        break;
+                    case "path":
+                        path = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return of(origin, path);
+        }
+    }
 }
@@ -1,10 +1,13 @@
 package com.sourcegraph.toolchain.core.objects;
 
-import com.google.gson.*;
-import com.sourcegraph.toolchain.core.PathUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.sourcegraph.toolchain.core.FileTable;
 import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * Reference to a definition object
@@ -32,9 +35,9 @@ public class Ref {
     public String defUnit;
 
     /**
-     * File that holds a reference
+     * ID of file that holds a reference, see {@link FileTable}
      */
-    public String file;
+    public int file;
 
     /**
      * Start offset in file
@@ -76,7 +79,7 @@ public class Ref {
         if (defRepo != null ? !defRepo.equals(ref.defRepo) : ref.defRepo != null) return false;
         if (defUnit != null ? !defUnit.equals(ref.defUnit) : ref.defUnit != null) return false;
         if (defUnitType != null ? !defUnitType.equals(ref.defUnitType) : ref.defUnitType != null) return false;
-        if (file != null ? !file.equals(ref.file) : ref.file != null) return false;
+        if (file != ref.file) return false;
 
         return true;
     }
@@ -87,7 +90,7 @@ public class Ref {
         result = 31 * result + (defRepo != null ? defRepo.hashCode() : 0);
         result = 31 * result + (defUnitType != null ? defUnitType.hashCode() : 0);
         result = 31 * result + (defUnit != null ? defUnit.hashCode() : 0);
-        result = 31 * result + (file != null ? file.hashCode() : 0);
+        result = 31 * result + file;
         result = 31 * result + start;
         result = 31 * result + end;
         result = 31 * result + (def ? 1 : 0);
@@ -96,30 +99,79 @@ public class Ref {
 
     @Override
     public String toString() {
-        return "Ref{" + defKey +" @" + file + ":" + start + "-" + end + (def ? " DEF" : StringUtils.EMPTY) + "}";
+        return "Ref{" + defKey +" @" + FileTable.getInstance().getPath(file) + ":" + start + "-" + end + (def ? " DEF" : StringUtils.EMPTY) + "}";
     }
 
     /**
-     * JSON serialization rules for reference objects
+     * JSON serialization rules for reference objects. Writes references directly to JSON stream and reads them
+     * back from graph output
      */
-    public static class JSONSerializer implements JsonSerializer<Ref> {
+    public static class JSONAdapter extends TypeAdapter<Ref> {
+
+        private final FileTable fileTable = FileTable.getInstance();
 
         @Override
-        public JsonElement serialize(Ref ref, Type arg1, JsonSerializationContext arg2) {
-            JsonObject object = new JsonObject();
+        public void write(JsonWriter out, Ref ref) throws IOException {
+            out.beginObject();
 
-            if (ref.defRepo != null) object.add("DefRepo", new JsonPrimitive(ref.defRepo));
-            if (ref.defUnitType != null) object.add("DefUnitType", new JsonPrimitive(ref.defUnitType));
-            if (ref.defUnit != null) object.add("DefUnit", new JsonPrimitive(ref.defUnit));
-            object.add("DefPath", new JsonPrimitive(ref.defKey.formatPath()));
+            if (ref.defRepo != null) out.name("DefRepo").value(ref.defRepo);
+            if (ref.defUnitType != null) out.name("DefUnitType").value(ref.defUnitType);
+            if (ref.defUnit != null) out.name("DefUnit").value(ref.defUnit);
+            out.name("DefPath").value(ref.defKey.formatPath());
 
-            object.add("File", new JsonPrimitive(PathUtil.relativizeCwd(ref.file)));
-            object.add("Start", new JsonPrimitive(ref.start));
-            object.add("End", new JsonPrimitive(ref.end));
-            object.add("Def", new JsonPrimitive(ref.def));
+            out.name("File").value(fileTable.getPath(ref.file));
+            out.name("Start").value(ref.start);
+            out.name("End").value(ref.end);
+            out.name("Def").value(ref.def);
 
-            return object;
+            out.endObject();
         }
 
+        @Override
+        public Ref read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Ref ref = new Ref();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "DefRepo":
+                        ref.defRepo = in.nextString();
+                        break;
+                    case "DefUnitType":
+                        ref.defUnitType = in.nextString();
+                        break;
+                    case "DefUnit":
+                        ref.defUnit = in.nextString();
+                        break;
+                    case "DefPath":
+                        ref.defKey = DefKey.of(null, in.nextString());
+                        break;
+                    case "File":
+                        ref.file = fileTable.intern(in.nextString());
+                        break;
+                    case "Start":
+                        ref.start = in.nextInt();
+                        break;
+                    case "End":
+                        ref.end = in.nextInt();
+                        break;
+                    case "Def":
+                        ref.def = in.nextBoolean();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return ref;
+        }
     }
 }
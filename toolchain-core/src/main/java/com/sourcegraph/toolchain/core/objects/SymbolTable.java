@@ -0,0 +1,135 @@
+package com.sourcegraph.toolchain.core.objects;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns definition keys. Each distinct (origin, path) pair is represented by a single canonical DefKey object that
+ * carries dense integer ID (1, 2, ...) and precomputed hash code, so keys may be compared by identity and used as
+ * indexes of arrays. Thread-safe, interning new keys is serialized while lookups by ID do not lock
+ */
+public class SymbolTable {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private static final SymbolTable INSTANCE = new SymbolTable();
+
+    /**
+     * Canonical keys, path is used as a lookup key of keys without origin, Qualified object is used for the rest
+     */
+    private volatile Map<Object, DefKey> keys = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+
+    /**
+     * Canonical keys indexed by ID, element 0 is unused. Field is written again after each new key, so that readers
+     * see all the keys issued before
+     */
+    private volatile DefKey[] byId = new DefKey[INITIAL_CAPACITY];
+
+    /**
+     * Number of IDs issued so far
+     */
+    private volatile int size;
+
+    private SymbolTable() {
+    }
+
+    /**
+     * @return symbol table instance
+     */
+    public static SymbolTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param origin definition origin, may be null
+     * @param path definition path
+     * @return canonical key for given origin and path
+     */
+    public DefKey intern(URI origin, String path) {
+        Object lookup = origin == null && path != null ? path : new Qualified(origin, path);
+        Map<Object, DefKey> keys = this.keys;
+        DefKey key = keys.get(lookup);
+        if (key != null) {
+            return key;
+        }
+        return keys.computeIfAbsent(lookup, k -> register(origin, path));
+    }
+
+    /**
+     * @param id key ID
+     * @return canonical key with given ID or null if there is no such key
+     */
+    public DefKey get(int id) {
+        DefKey[] byId = this.byId;
+        return id > 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /**
+     * @return number of interned keys, IDs of interned keys are in [1..size] range
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forgets all interned keys, IDs issued before are reused. Keys obtained before remain valid (their equality is
+     * still defined by origin and path) but are no longer canonical
+     */
+    public synchronized void clear() {
+        keys = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+        byId = new DefKey[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Makes new canonical key
+     * @param origin definition origin
+     * @param path definition path
+     * @return new key with next available ID
+     */
+    private synchronized DefKey register(URI origin, String path) {
+        int id = size + 1;
+        DefKey[] byId = this.byId;
+        if (id == byId.length) {
+            byId = Arrays.copyOf(byId, byId.length << 1);
+        }
+        DefKey key = new DefKey(origin, path, id);
+        byId[id] = key;
+        // publishes new key to readers
+        this.byId = byId;
+        size = id;
+        return key;
+    }
+
+    /**
+     * Lookup key of definition keys that have origin
+     */
+    private static class Qualified {
+
+        final URI origin;
+        final String path;
+
+        Qualified(URI origin, String path) {
+            this.origin = origin;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Qualified qualified = (Qualified) o;
+
+            if (origin != null ? !origin.equals(qualified.origin) : qualified.origin != null) return false;
+            return path != null ? path.equals(qualified.path) : qualified.path == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return DefKey.hash(origin, path);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.sourcegraph.toolchain.language;
+
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.ATNSimulator;
+import org.antlr.v4.runtime.atn.LexerATNSimulator;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of ANTLR DFA caches. Generated lexers and parsers share DFA and prediction context cache (per grammar)
+ * in static fields that grow during the whole run, manager reports their size and clears them when heap is under
+ * pressure or when number of DFA states exceeds configured limit. ANTLR refills cleared caches on demand.
+ * Heap is considered under pressure when old generation usage measured after garbage collection exceeds configured
+ * fraction, caches are cleared at most once per garbage collection, so that they are not cleared after every file
+ * when heap is filled with objects other than DFA
+ */
+public class DFACacheManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DFACacheManager.class);
+
+    private static final DFACacheManager INSTANCE = new DFACacheManager();
+
+    /**
+     * Map of PredictionContextCache, which has no method to clear it
+     */
+    private static final Field CONTEXT_CACHE_MAP = getContextCacheMap();
+
+    /**
+     * Simulators of known recognizers (recognizer class => simulator). Since DFA is shared between all instances of
+     * a given recognizer class, it's enough to keep one simulator per class
+     */
+    private final Map<Class<?>, ATNSimulator> simulators = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum number of DFA states to keep, 0 means no limit
+     */
+    private volatile int maxStates;
+
+    /**
+     * Fraction of maximum old generation size, DFA caches are cleared when old generation usage after garbage
+     * collection exceeds it
+     */
+    private volatile double maxHeapRatio = 0.9;
+
+    /**
+     * Heap memory pool long-living objects (DFA included) are promoted to, null if unknown
+     */
+    private final MemoryPoolMXBean tenuredPool = getTenuredPool();
+
+    /**
+     * Number of garbage collections of tenured pool when caches were cleared because of heap pressure last time
+     */
+    private long clearedAtCollection = -1;
+
+    private DFACacheManager() {
+    }
+
+    public static DFACacheManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param maxStates maximum number of DFA states to keep, 0 means no limit
+     */
+    public void setMaxStates(int maxStates) {
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * @param maxHeapRatio fraction of maximum old generation size, DFA caches are cleared when old generation usage
+     * after garbage collection exceeds it
+     */
+    public void setMaxHeapRatio(double maxHeapRatio) {
+        this.maxHeapRatio = maxHeapRatio;
+    }
+
+    /**
+     * Registers lexer or parser which DFA cache should be managed
+     * @param recognizer lexer or parser
+     */
+    public void register(Recognizer<?, ?> recognizer) {
+        simulators.putIfAbsent(recognizer.getClass(), recognizer.getInterpreter());
+    }
+
+    /**
+     * @return total number of DFA states of all known recognizers
+     */
+    public int getSize() {
+        int size = 0;
+        for (ATNSimulator simulator : simulators.values()) {
+            for (DFA dfa : getDecisionToDFA(simulator)) {
+                size += dfa.states.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return total number of shared prediction contexts of all known recognizers
+     */
+    public int getContextCacheSize() {
+        int size = 0;
+        for (ATNSimulator simulator : simulators.values()) {
+            if (simulator.getSharedContextCache() != null) {
+                size += simulator.getSharedContextCache().size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Clears DFA and shared prediction context caches of all known recognizers
+     */
+    public void clear() {
+        for (ATNSimulator simulator : simulators.values()) {
+            simulator.clearDFA();
+            clearContextCache(simulator.getSharedContextCache());
+        }
+    }
+
+    /**
+     * Clears DFA caches if heap is under pressure or if there are too many DFA states.
+     * Expected to be called between files
+     */
+    public void check() {
+        if (isHeapUnderPressure()) {
+            clear();
+            return;
+        }
+        if (maxStates > 0) {
+            int size = getSize();
+            if (size > maxStates) {
+                LOGGER.info("DFA size {} exceeds limit {}, clearing", size, maxStates);
+                clear();
+            }
+        }
+    }
+
+    /**
+     * Logs current size of DFA caches
+     */
+    public void report() {
+        LOGGER.info("DFA cache contains {} states, {} shared prediction contexts", getSize(), getContextCacheSize());
+    }
+
+    /**
+     * @return true if old generation usage after last garbage collection exceeds configured fraction and caches were
+     * not cleared since that collection
+     */
+    private synchronized boolean isHeapUnderPressure() {
+        if (tenuredPool == null) {
+            Runtime runtime = Runtime.getRuntime();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            if (used <= runtime.maxMemory() * maxHeapRatio) {
+                return false;
+            }
+            LOGGER.info("Heap is under pressure ({} of {} bytes used), clearing {} DFA states",
+                    used, runtime.maxMemory(), getSize());
+            return true;
+        }
+        MemoryUsage usage = tenuredPool.getCollectionUsage();
+        long max = usage.getMax() > 0 ? usage.getMax() : Runtime.getRuntime().maxMemory();
+        if (usage.getUsed() <= max * maxHeapRatio) {
+            return false;
+        }
+        long collections = getCollectionCount();
+        if (collections == clearedAtCollection) {
+            // caches were cleared, but there was no collection since then to tell if it helped
+            return false;
+        }
+        clearedAtCollection = collections;
+        LOGGER.info("Heap is under pressure ({} of {} bytes of {} used after GC), clearing {} DFA states",
+                usage.getUsed(), max, tenuredPool.getName(), getSize());
+        return true;
+    }
+
+    /**
+     * @return number of garbage collections that collected tenured pool
+     */
+    private long getCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            for (String pool : collector.getMemoryPoolNames()) {
+                if (pool.equals(tenuredPool.getName())) {
+                    count += Math.max(0, collector.getCollectionCount());
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return heap memory pool long-living objects are promoted to (old generation), null if unknown
+     */
+    private static MemoryPoolMXBean getTenuredPool() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // eden and survivor spaces do not support usage thresholds
+            if (pool.getType() == MemoryType.HEAP &&
+                    pool.isUsageThresholdSupported() &&
+                    pool.isCollectionUsageThresholdSupported()) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clears shared prediction context cache. ANTLR accesses cache while holding its monitor
+     * @param cache cache to clear, may be null
+     */
+    private static void clearContextCache(PredictionContextCache cache) {
+        if (cache == null || CONTEXT_CACHE_MAP == null) {
+            return;
+        }
+        synchronized (cache) {
+            try {
+                ((Map<?, ?>) CONTEXT_CACHE_MAP.get(cache)).clear();
+            } catch (IllegalAccessException e) {
+                LOGGER.warn("Unable to clear prediction context cache", e);
+            }
+        }
+    }
+
+    /**
+     * @return accessible map field of PredictionContextCache, null if there is no such field
+     */
+    private static Field getContextCacheMap() {
+        try {
+            Field field = PredictionContextCache.class.getDeclaredField("cache");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException | SecurityException e) {
+            LOGGER.warn("Prediction context cache will not be cleared", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param simulator lexer or parser simulator
+     * @return DFA of all decisions
+     */
+    private static DFA[] getDecisionToDFA(ATNSimulator simulator) {
+        if (simulator instanceof ParserATNSimulator) {
+            return ((ParserATNSimulator) simulator).decisionToDFA;
+        }
+        if (simulator instanceof LexerATNSimulator) {
+            return ((LexerATNSimulator) simulator).decisionToDFA;
+        }
+        return new DFA[0];
+    }
+}
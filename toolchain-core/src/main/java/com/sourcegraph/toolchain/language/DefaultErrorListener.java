@@ -1,63 +1,136 @@
-package com.sourcegraph.toolchain.language;
-
-import org.antlr.v4.runtime.ANTLRErrorListener;
-import org.antlr.v4.runtime.Parser;
-import org.antlr.v4.runtime.RecognitionException;
-import org.antlr.v4.runtime.Recognizer;
-import org.antlr.v4.runtime.atn.ATNConfigSet;
-import org.antlr.v4.runtime.dfa.DFA;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.File;
-import java.util.BitSet;
-
-/**
- * Default ANTLR error listener that logs syntax errors encountered by ANTLR to log file
- */
-public class DefaultErrorListener implements ANTLRErrorListener {
-
-    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultErrorListener.class);
-
-    private File sourceFile;
-
-    public DefaultErrorListener(File sourceFile) {
-        this.sourceFile = sourceFile;
-    }
-
-    @Override
-    public void syntaxError(Recognizer<?, ?> recognizer,
-                            Object offendingSymbol,
-                            int line,
-                            int charPositionInLine,
-                            String msg,
-                            RecognitionException e) {
-        LOGGER.warn("{} at {}:{}: {}", this.sourceFile, line, charPositionInLine, msg);
-    }
-
-    @Override
-    public void reportAmbiguity(Parser parser,
-                                DFA dfa,
-                                int i,
-                                int i1,
-                                boolean b,
-                                BitSet bitSet,
-                                ATNConfigSet atnConfigSet) {
-
-    }
-
-    @Override
-    public void reportAttemptingFullContext(Parser parser,
-                                            DFA dfa,
-                                            int i,
-                                            int i1,
-                                            BitSet bitSet,
-                                            ATNConfigSet atnConfigSet) {
-
-    }
-
-    @Override
-    public void reportContextSensitivity(Parser parser, DFA dfa, int i, int i1, int i2, ATNConfigSet atnConfigSet) {
-    }
-
-}
+package com.sourcegraph.toolchain.language;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.ATNConfigSet;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Default ANTLR error listener that counts syntax errors encountered by ANTLR and logs them as a single per-file
+ * summary (see {@link #report()}) instead of logging each of them. When file has more syntax errors than allowed,
+ * parsing is interrupted with {@link ParseBudgetExceededException}, so that error recovery does not keep
+ * re-syncing through files that are not written in a given language
+ */
+public class DefaultErrorListener implements ANTLRErrorListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultErrorListener.class);
+
+    /**
+     * Number of first syntax errors to include in summary
+     */
+    private static final int MAX_DESCRIBED_ERRORS = 3;
+
+    private File sourceFile;
+
+    /**
+     * Maximum number of syntax errors, 0 means no limit
+     */
+    private int maxErrors;
+
+    /**
+     * Parser to take parse tree from when parsing is interrupted
+     */
+    private Parser parser;
+
+    private int errors;
+
+    private final List<String> descriptions = new ArrayList<>(MAX_DESCRIBED_ERRORS);
+
+    private ParserRuleContext partialTree;
+
+    public DefaultErrorListener(File sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+
+    /**
+     * @param maxErrors maximum number of syntax errors, parsing is interrupted when exceeded. 0 means no limit
+     * @param parser parser to take partial parse tree from when parsing is interrupted
+     */
+    void setErrorBudget(int maxErrors, Parser parser) {
+        this.maxErrors = maxErrors;
+        this.parser = parser;
+    }
+
+    /**
+     * @return number of syntax errors reported so far (lexer and parser ones)
+     */
+    public int getErrorCount() {
+        return errors;
+    }
+
+    /**
+     * @return parse tree built before parsing was interrupted because of too many syntax errors, null if parsing was
+     * not interrupted or interruption happened outside of parser rules. Rules that were not complete end at last
+     * consumed token
+     */
+    public ParserRuleContext getPartialTree() {
+        return partialTree;
+    }
+
+    /**
+     * Logs summary of syntax errors reported so far, if any
+     */
+    public void report() {
+        if (errors > 0) {
+            LOGGER.warn("{}: {} syntax errors, first ones: {}", sourceFile, errors, descriptions);
+        }
+    }
+
+    @Override
+    public void syntaxError(Recognizer<?, ?> recognizer,
+                            Object offendingSymbol,
+                            int line,
+                            int charPositionInLine,
+                            String msg,
+                            RecognitionException e) {
+        errors++;
+        if (descriptions.size() < MAX_DESCRIBED_ERRORS) {
+            descriptions.add(line + ":" + charPositionInLine + " " + msg);
+        }
+        if (maxErrors > 0 && errors > maxErrors) {
+            // rules being parsed are completed (stop tokens are set) while exception unwinds parser
+            ParserRuleContext ctx = parser == null ? null : parser.getContext();
+            while (ctx != null && ctx.getParent() != null) {
+                ctx = ctx.getParent();
+            }
+            partialTree = ctx;
+            throw new ParseBudgetExceededException(errors + " syntax errors");
+        }
+    }
+
+    @Override
+    public void reportAmbiguity(Parser parser,
+                                DFA dfa,
+                                int i,
+                                int i1,
+                                boolean b,
+                                BitSet bitSet,
+                                ATNConfigSet atnConfigSet) {
+
+    }
+
+    @Override
+    public void reportAttemptingFullContext(Parser parser,
+                                            DFA dfa,
+                                            int i,
+                                            int i1,
+                                            BitSet bitSet,
+                                            ATNConfigSet atnConfigSet) {
+
+    }
+
+    @Override
+    public void reportContextSensitivity(Parser parser, DFA dfa, int i, int i1, int i2, ATNConfigSet atnConfigSet) {
+    }
+
+}
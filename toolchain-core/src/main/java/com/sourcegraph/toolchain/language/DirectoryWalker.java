@@ -0,0 +1,278 @@
+package com.sourcegraph.toolchain.language;
+
+import com.sourcegraph.toolchain.core.PathUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Walks directory tree using fork/join pool (each directory is listed by a separate task, that pays off on network
+ * file systems) and collects files for a group of extension-based collectors. Produces files in the same order as
+ * sequential depth-first walk does. Directories are pruned as soon as none of collectors accepts them
+ */
+class DirectoryWalker {
+
+    /**
+     * Directories that never contain sources worth collecting
+     */
+    private static final Set<String> IGNORED_DIRECTORIES = new HashSet<>(Arrays.asList(
+            ".git", ".hg", ".svn", "node_modules", "bower_components"));
+
+    private static final String IGNORE_FILE = ".gitignore";
+
+    /**
+     * Walk is I/O bound, using more threads than there are CPUs
+     */
+    private static final int PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final Path root;
+    private final List<ExtensionBasedFileCollector.Matcher> matchers;
+    private final boolean followLinks;
+    private final boolean ignoreFiles;
+
+    /**
+     * @param root root directory
+     * @param matchers matchers of collectors to collect files for
+     * @param followLinks true if symbolic links to directories should be followed
+     * @param ignoreFiles true if .gitignore files and well-known ignored directories should be honoured
+     */
+    DirectoryWalker(Path root,
+                    List<ExtensionBasedFileCollector.Matcher> matchers,
+                    boolean followLinks,
+                    boolean ignoreFiles) {
+        this.root = root;
+        this.matchers = matchers;
+        this.followLinks = followLinks;
+        this.ignoreFiles = ignoreFiles;
+    }
+
+    /**
+     * @return files collected for each matcher, in matchers order
+     * @throws IOException
+     */
+    List<List<File>> walk() throws IOException {
+        if (!Files.isDirectory(root)) {
+            List<List<File>> files = newResult();
+            addFile(root, root.getFileName().toString(), allMatchers(), files);
+            return files;
+        }
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        try {
+            Ancestor ancestor = followLinks ? new Ancestor(fileKey(root), null) : null;
+            return pool.invoke(new DirectoryTask(root,
+                    "",
+                    allMatchers(),
+                    new BitSet(),
+                    IgnoreRules.EMPTY,
+                    ancestor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private BitSet allMatchers() {
+        BitSet all = new BitSet();
+        all.set(0, matchers.size());
+        return all;
+    }
+
+    private List<List<File>> newResult() {
+        List<List<File>> files = new ArrayList<>(matchers.size());
+        for (int i = 0; i < matchers.size(); i++) {
+            files.add(new ArrayList<>());
+        }
+        return files;
+    }
+
+    /**
+     * Adds file to results of all active matchers that accept it
+     * @param file file
+     * @param name file name
+     * @param active active matchers
+     * @param files results
+     */
+    private void addFile(Path file, String name, BitSet active, List<List<File>> files) {
+        for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+            if (matchers.get(i).acceptsFile(name)) {
+                files.get(i).add(file.toFile());
+            }
+        }
+    }
+
+    /**
+     * @param path path
+     * @return key that identifies file system object (inode), used to detect link loops
+     * @throws IOException
+     */
+    private static Object fileKey(Path path) throws IOException {
+        Object key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        return key != null ? key : path.toRealPath();
+    }
+
+    /**
+     * Directory on the path from root to directory being walked, used to detect link loops
+     */
+    private static class Ancestor {
+        final Object key;
+        final Ancestor parent;
+
+        Ancestor(Object key, Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        boolean contains(Object key) {
+            for (Ancestor ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor.key.equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Collects files in a single directory, forks tasks for subdirectories
+     */
+    private class DirectoryTask extends RecursiveTask<List<List<File>>> {
+
+        private final Path dir;
+
+        /**
+         * Directory path relative to root
+         */
+        private final String rel;
+
+        /**
+         * Matchers that accept parent directory
+         */
+        private final BitSet parentActive;
+
+        /**
+         * Matchers that found parent directory inside one of their include directories
+         */
+        private final BitSet parentIncluded;
+
+        private final IgnoreRules rules;
+
+        private final Ancestor ancestor;
+
+        DirectoryTask(Path dir,
+                      String rel,
+                      BitSet parentActive,
+                      BitSet parentIncluded,
+                      IgnoreRules rules,
+                      Ancestor ancestor) {
+            this.dir = dir;
+            this.rel = rel;
+            this.parentActive = parentActive;
+            this.parentIncluded = parentIncluded;
+            this.rules = rules;
+            this.ancestor = ancestor;
+        }
+
+        @Override
+        protected List<List<File>> compute() {
+            List<List<File>> files = newResult();
+
+            BitSet active = new BitSet();
+            BitSet included = new BitSet();
+            for (int i = parentActive.nextSetBit(0); i >= 0; i = parentActive.nextSetBit(i + 1)) {
+                ExtensionBasedFileCollector.Matcher matcher = matchers.get(i);
+                if (parentIncluded.get(i) || matcher.isIncluded(rel)) {
+                    included.set(i);
+                    if (!matcher.isExcluded(rel)) {
+                        active.set(i);
+                    }
+                }
+            }
+            if (active.isEmpty()) {
+                return files;
+            }
+
+            try {
+                List<Path> entries = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                    stream.forEach(entries::add);
+                }
+
+                IgnoreRules dirRules = rules;
+                if (ignoreFiles) {
+                    Path ignoreFile = dir.resolve(IGNORE_FILE);
+                    if (entries.contains(ignoreFile)) {
+                        dirRules = rules.add(ignoreFile, PathUtil.normalize(rel));
+                    }
+                }
+
+                // files and subdirectory tasks in listing order
+                List<Object> items = new ArrayList<>(entries.size());
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    String entryRel = rel.isEmpty() ? name : rel + File.separatorChar + name;
+                    BasicFileAttributes attrs = Files.readAttributes(entry,
+                            BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    Ancestor entryAncestor = ancestor;
+                    boolean directory = attrs.isDirectory();
+                    if (attrs.isSymbolicLink() && followLinks && Files.isDirectory(entry)) {
+                        Object key = fileKey(entry);
+                        if (ancestor.contains(key)) {
+                            // link loop
+                            continue;
+                        }
+                        directory = true;
+                        entryAncestor = new Ancestor(key, ancestor);
+                    } else if (directory && followLinks) {
+                        entryAncestor = new Ancestor(fileKey(entry), ancestor);
+                    }
+                    if (ignoreFiles) {
+                        if (directory && IGNORED_DIRECTORIES.contains(name)) {
+                            continue;
+                        }
+                        if (dirRules.isIgnored(PathUtil.normalize(entryRel), directory)) {
+                            continue;
+                        }
+                    }
+                    if (directory) {
+                        DirectoryTask task = new DirectoryTask(entry,
+                                entryRel,
+                                active,
+                                included,
+                                dirRules,
+                                entryAncestor);
+                        task.fork();
+                        items.add(task);
+                    } else {
+                        items.add(entry);
+                    }
+                }
+
+                for (Object item : items) {
+                    if (item instanceof Path) {
+                        Path file = (Path) item;
+                        addFile(file, file.getFileName().toString(), active, files);
+                    } else {
+                        List<List<File>> subdirFiles = ((DirectoryTask) item).join();
+                        for (int i = 0; i < files.size(); i++) {
+                            files.get(i).addAll(subdirFiles.get(i));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return files;
+        }
+    }
+}
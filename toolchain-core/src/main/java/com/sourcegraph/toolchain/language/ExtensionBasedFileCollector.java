@@ -1,105 +1,196 @@
-package com.sourcegraph.toolchain.language;
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-
-/**
- * Extension-based file collector. Allows to declare list of supported file extensions and optional list of
- * include/exclude directories.
- * For example,
- * - for Objective C configuration may be : extensions: .h, .m, .mm
- * - for PHP (with Composer) configuration may be : extensions: .php, exclude: vendor
- * Collection rules are the following: Matching file should contain one of registered extension, be located inside
- * include directories (or they should be empty), and not be in the exclude directories.
- */
-public class ExtensionBasedFileCollector implements FileCollector {
-
-    private Collection<String> extensions = new HashSet<>();
-    private Collection<String> includes = new HashSet<>();
-    private Collection<String> excludes = new HashSet<>();
-
-    /**
-     * Registers one or more extension
-     * @param extension extension to register
-     * @return this
-     */
-    public ExtensionBasedFileCollector extension(String... extension) {
-        Collections.addAll(extensions, extension);
-        return this;
-    }
-
-    /**
-     * Adds directories to include section. Files located outside include directories will not be collected
-     * (unless includes section is empty)
-     * @param directories directories to add
-     * @return this
-     */
-    public ExtensionBasedFileCollector include(String... directories) {
-        Collections.addAll(includes, directories);
-        return this;
-    }
-
-    /**
-     * Adds directories to exclude section. Files located inside exclude directories will not be collected
-     * @param directories directories to add
-     * @return this
-     */
-    public ExtensionBasedFileCollector exclude(String... directories) {
-        Collections.addAll(excludes, directories);
-        return this;
-    }
-
-    @Override
-    public Collection<File> collect(File rootDir) throws IOException {
-        Collection<File> files = new ArrayList<>();
-        Files.walkFileTree(rootDir.toPath(), new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                String fileName = file.toString();
-                for (String extension : extensions) {
-                    if (fileName.endsWith(extension)) {
-                        files.add(file.toFile());
-                        break;
-                    }
-                }
-                return FileVisitResult.CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-                    throws IOException {
-                String rel = rootDir.toPath().relativize(dir).toString();
-                if (!includes.isEmpty()) {
-                    boolean matches = false;
-                    for (String include : includes) {
-                        if (rel.startsWith(include)) {
-                            matches = true;
-                            break;
-                        }
-                    }
-                    if (!matches) {
-                        return FileVisitResult.SKIP_SUBTREE;
-                    }
-                }
-                if (!excludes.isEmpty()) {
-                    for (String exclude : excludes) {
-                        if (rel.startsWith(exclude)) {
-                            return FileVisitResult.SKIP_SUBTREE;
-                        }
-                    }
-                }
-                return FileVisitResult.CONTINUE;
-            }
-        });
-        return files;
-    }
-}
\ No newline at end of file
+package com.sourcegraph.toolchain.language;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Extension-based file collector. Allows to declare list of supported file extensions and optional list of
+ * include/exclude directories.
+ * For example,
+ * - for Objective C configuration may be : extensions: .h, .m, .mm
+ * - for PHP (with Composer) configuration may be : extensions: .php, exclude: vendor
+ * Collection rules are the following: Matching file should contain one of registered extension, be located inside
+ * include directories (or they should be empty), and not be in the exclude directories.
+ * By default files and directories ignored by .gitignore files, VCS directories and node_modules are skipped,
+ * symbolic links to directories are not followed.
+ */
+public class ExtensionBasedFileCollector implements FileCollector {
+
+    private Collection<String> extensions = new HashSet<>();
+    private Collection<String> includes = new HashSet<>();
+    private Collection<String> excludes = new HashSet<>();
+    private boolean followLinks;
+    private boolean ignoreFiles = true;
+
+    /**
+     * Registers one or more extension
+     * @param extension extension to register
+     * @return this
+     */
+    public ExtensionBasedFileCollector extension(String... extension) {
+        Collections.addAll(extensions, extension);
+        return this;
+    }
+
+    /**
+     * Adds directories to include section. Files located outside include directories will not be collected
+     * (unless includes section is empty)
+     * @param directories directories to add
+     * @return this
+     */
+    public ExtensionBasedFileCollector include(String... directories) {
+        Collections.addAll(includes, directories);
+        return this;
+    }
+
+    /**
+     * Adds directories to exclude section. Files located inside exclude directories will not be collected
+     * @param directories directories to add
+     * @return this
+     */
+    public ExtensionBasedFileCollector exclude(String... directories) {
+        Collections.addAll(excludes, directories);
+        return this;
+    }
+
+    /**
+     * @param followLinks true if symbolic links to directories should be followed (link loops are skipped)
+     * @return this
+     */
+    public ExtensionBasedFileCollector followLinks(boolean followLinks) {
+        this.followLinks = followLinks;
+        return this;
+    }
+
+    /**
+     * @param ignoreFiles true if .gitignore files, VCS directories and node_modules should be honoured
+     * @return this
+     */
+    public ExtensionBasedFileCollector ignoreFiles(boolean ignoreFiles) {
+        this.ignoreFiles = ignoreFiles;
+        return this;
+    }
+
+    @Override
+    public Collection<File> collect(File rootDir) throws IOException {
+        return collect(rootDir, Collections.singleton(this)).get(this);
+    }
+
+    /**
+     * Collects files for several collectors in a single (parallel) directory walk. Directory subtree is skipped
+     * only when none of collectors accepts directory. Collectors with different link and ignore file settings
+     * are served by separate walks
+     * @param rootDir root directory
+     * @param collectors collectors to collect files for
+     * @return files collected by each collector (collector => files), in walk order
+     * @throws IOException
+     */
+    public static Map<ExtensionBasedFileCollector, Collection<File>> collect(
+            File rootDir,
+            Collection<ExtensionBasedFileCollector> collectors) throws IOException {
+
+        Map<List<Boolean>, List<ExtensionBasedFileCollector>> groups = new LinkedHashMap<>();
+        for (ExtensionBasedFileCollector collector : collectors) {
+            groups.computeIfAbsent(Arrays.asList(collector.followLinks, collector.ignoreFiles),
+                    settings -> new ArrayList<>()).add(collector);
+        }
+
+        Map<ExtensionBasedFileCollector, Collection<File>> files = new IdentityHashMap<>();
+        for (Map.Entry<List<Boolean>, List<ExtensionBasedFileCollector>> group : groups.entrySet()) {
+            List<ExtensionBasedFileCollector> groupCollectors = group.getValue();
+            List<Matcher> matchers = new ArrayList<>(groupCollectors.size());
+            for (ExtensionBasedFileCollector collector : groupCollectors) {
+                matchers.add(collector.new Matcher());
+            }
+            List<List<File>> groupFiles = new DirectoryWalker(rootDir.toPath(),
+                    matchers,
+                    group.getKey().get(0),
+                    group.getKey().get(1)).walk();
+            for (int i = 0; i < groupCollectors.size(); i++) {
+                files.put(groupCollectors.get(i), groupFiles.get(i));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Precompiled extension and include/exclude rules, snapshot of collector's configuration
+     */
+    class Matcher {
+
+        /**
+         * Simple extensions (.foo)
+         */
+        private final Set<String> suffixes = new HashSet<>();
+
+        /**
+         * Extensions that cannot be looked up by the last dot of file name
+         */
+        private final String[] otherExtensions;
+
+        private final String[] includes;
+        private final String[] excludes;
+
+        Matcher() {
+            List<String> other = new ArrayList<>();
+            for (String extension : extensions) {
+                if (extension.lastIndexOf('.') == 0) {
+                    suffixes.add(extension);
+                } else {
+                    other.add(extension);
+                }
+            }
+            this.otherExtensions = other.toArray(new String[other.size()]);
+            this.includes = ExtensionBasedFileCollector.this.includes.toArray(new String[0]);
+            this.excludes = ExtensionBasedFileCollector.this.excludes.toArray(new String[0]);
+        }
+
+        /**
+         * @param fileName file name
+         * @return true if file has one of registered extensions
+         */
+        boolean acceptsFile(String fileName) {
+            int dot = fileName.lastIndexOf('.');
+            if (dot >= 0 && suffixes.contains(fileName.substring(dot))) {
+                return true;
+            }
+            for (String extension : otherExtensions) {
+                if (fileName.endsWith(extension)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param rel directory path relative to root directory
+         * @return true if directory is located inside one of include directories (or there are no includes).
+         * Subdirectories of included directory are included too, so it's enough to check it once
+         */
+        boolean isIncluded(String rel) {
+            if (includes.length == 0) {
+                return true;
+            }
+            for (String include : includes) {
+                if (rel.startsWith(include)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param rel directory path relative to root directory
+         * @return true if directory is located inside one of exclude directories
+         */
+        boolean isExcluded(String rel) {
+            for (String exclude : excludes) {
+                if (rel.startsWith(exclude)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.sourcegraph.toolchain.language;
+
+import com.google.gson.GsonBuilder;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+import org.antlr.v4.runtime.atn.ParseInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates ANTLR grammar decision profiles (see Parser.setProfile()) of all files parsed during graphing.
+ * Reports per-decision and per-rule invocation counts, lookahead depth, SLL to LL fallbacks, ambiguities
+ * and prediction time for each grammar, so that rules that make parsing slow could be found.
+ * Thread-safe, may be shared between graphing workers
+ */
+public class GrammarProfiler {
+
+    /**
+     * Profiles of known grammars (parser class name => profile)
+     */
+    private final Map<String, GrammarProfile> grammars = new ConcurrentHashMap<>();
+
+    /**
+     * Adds decision profile of a given parser, parser is expected to be created with profiling enabled
+     * @param parser parser that parsed file
+     */
+    public void record(Parser parser) {
+        ParseInfo info = parser.getParseInfo();
+        if (info == null) {
+            return;
+        }
+        grammars.computeIfAbsent(parser.getClass().getSimpleName(), k -> new GrammarProfile(parser)).
+                add(info.getDecisionInfo());
+    }
+
+    /**
+     * Writes JSON report
+     * @param reportFile file to write report to
+     * @throws IOException
+     */
+    public void write(File reportFile) throws IOException {
+        Map<String, Object> report = new TreeMap<>();
+        for (Map.Entry<String, GrammarProfile> entry : grammars.entrySet()) {
+            report.put(entry.getKey(), entry.getValue().getReport());
+        }
+        try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    /**
+     * Aggregated profile of single grammar
+     */
+    private static class GrammarProfile {
+
+        /**
+         * Rule names indexed by decision number
+         */
+        private final String[] decisionRules;
+
+        private final DecisionProfile[] decisions;
+
+        private int files;
+
+        GrammarProfile(Parser parser) {
+            ATN atn = parser.getATN();
+            String[] ruleNames = parser.getRuleNames();
+            decisionRules = new String[atn.getNumberOfDecisions()];
+            decisions = new DecisionProfile[decisionRules.length];
+            for (int i = 0; i < decisionRules.length; i++) {
+                decisionRules[i] = ruleNames[atn.getDecisionState(i).ruleIndex];
+                decisions[i] = new DecisionProfile();
+            }
+        }
+
+        synchronized void add(DecisionInfo[] infos) {
+            files++;
+            for (DecisionInfo info : infos) {
+                if (info.invocations > 0 && info.decision < decisions.length) {
+                    decisions[info.decision].add(info);
+                }
+            }
+        }
+
+        /**
+         * @return report object, contains rules and decisions ordered by prediction time
+         */
+        synchronized Map<String, Object> getReport() {
+            Map<String, DecisionProfile> rules = new HashMap<>();
+            List<Integer> invoked = new ArrayList<>();
+            long total = 0;
+            for (int i = 0; i < decisions.length; i++) {
+                if (decisions[i].invocations == 0) {
+                    continue;
+                }
+                invoked.add(i);
+                total += decisions[i].nanos;
+                rules.computeIfAbsent(decisionRules[i], k -> new DecisionProfile()).add(decisions[i]);
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("Files", files);
+            report.put("PredictionMillis", millis(total));
+
+            List<Map.Entry<String, DecisionProfile>> ruleEntries = new ArrayList<>(rules.entrySet());
+            ruleEntries.sort(Comparator.comparing((Map.Entry<String, DecisionProfile> e) -> e.getValue().nanos).
+                    reversed());
+            List<Object> ruleReports = new ArrayList<>(ruleEntries.size());
+            for (Map.Entry<String, DecisionProfile> entry : ruleEntries) {
+                Map<String, Object> ruleReport = new LinkedHashMap<>();
+                ruleReport.put("Rule", entry.getKey());
+                ruleReport.putAll(entry.getValue().getReport());
+                ruleReports.add(ruleReport);
+            }
+            report.put("Rules", ruleReports);
+
+            invoked.sort(Comparator.comparing((Integer i) -> decisions[i].nanos).reversed());
+            List<Object> decisionReports = new ArrayList<>(invoked.size());
+            for (int i : invoked) {
+                Map<String, Object> decisionReport = new LinkedHashMap<>();
+                decisionReport.put("Decision", i);
+                decisionReport.put("Rule", decisionRules[i]);
+                decisionReport.putAll(decisions[i].getReport());
+                decisionReports.add(decisionReport);
+            }
+            report.put("Decisions", decisionReports);
+            return report;
+        }
+    }
+
+    /**
+     * Aggregated profile of single decision or of all decisions of a rule
+     */
+    private static class DecisionProfile {
+
+        long invocations;
+        long nanos;
+        long sllTotalLook;
+        long sllMaxLook;
+        long llFallbacks;
+        long llTotalLook;
+        long llMaxLook;
+        long ambiguities;
+        long contextSensitivities;
+        long errors;
+
+        void add(DecisionInfo info) {
+            invocations += info.invocations;
+            nanos += info.timeInPrediction;
+            sllTotalLook += info.SLL_TotalLook;
+            sllMaxLook = Math.max(sllMaxLook, info.SLL_MaxLook);
+            llFallbacks += info.LL_Fallback;
+            llTotalLook += info.LL_TotalLook;
+            llMaxLook = Math.max(llMaxLook, info.LL_MaxLook);
+            ambiguities += info.ambiguities.size();
+            contextSensitivities += info.contextSensitivities.size();
+            errors += info.errors.size();
+        }
+
+        void add(DecisionProfile profile) {
+            invocations += profile.invocations;
+            nanos += profile.nanos;
+            sllTotalLook += profile.sllTotalLook;
+            sllMaxLook = Math.max(sllMaxLook, profile.sllMaxLook);
+            llFallbacks += profile.llFallbacks;
+            llTotalLook += profile.llTotalLook;
+            llMaxLook = Math.max(llMaxLook, profile.llMaxLook);
+            ambiguities += profile.ambiguities;
+            contextSensitivities += profile.contextSensitivities;
+            errors += profile.errors;
+        }
+
+        Map<String, Object> getReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("Invocations", invocations);
+            report.put("PredictionMillis", millis(nanos));
+            report.put("SLLAverageLookahead", invocations == 0 ? 0 : (double) sllTotalLook / invocations);
+            report.put("SLLMaxLookahead", sllMaxLook);
+            report.put("LLFallbacks", llFallbacks);
+            report.put("LLAverageLookahead", llFallbacks == 0 ? 0 : (double) llTotalLook / llFallbacks);
+            report.put("LLMaxLookahead", llMaxLook);
+            report.put("Ambiguities", ambiguities);
+            report.put("ContextSensitivities", contextSensitivities);
+            report.put("Errors", errors);
+            return report;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.sourcegraph.toolchain.language;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Ignore rules read from .gitignore files. Supports comments, negation (!), directory-only patterns (trailing /),
+ * anchored patterns (containing /) and *, ?, [...], ** wildcards. Rules of nested directories are evaluated after
+ * rules of their parents, last matching rule wins. Immutable
+ */
+class IgnoreRules {
+
+    /**
+     * Rules that ignore nothing
+     */
+    static final IgnoreRules EMPTY = new IgnoreRules(null, StringUtils.EMPTY, Collections.emptyList());
+
+    /**
+     * Rules of parent directories
+     */
+    private final IgnoreRules parent;
+
+    /**
+     * Path of directory rules were read in, relative to walk root, '/'-separated, empty for root
+     */
+    private final String base;
+
+    private final List<Rule> rules;
+
+    private IgnoreRules(IgnoreRules parent, String base, List<Rule> rules) {
+        this.parent = parent;
+        this.base = base;
+        this.rules = rules;
+    }
+
+    /**
+     * @param ignoreFile ignore file to read
+     * @param base path of directory ignore file is located in, relative to walk root, '/'-separated
+     * @return rules that include rules of this object and rules read from given file
+     * @throws IOException
+     */
+    IgnoreRules add(Path ignoreFile, String base) throws IOException {
+        List<Rule> rules = new ArrayList<>();
+        for (String line : Files.readAllLines(ignoreFile, StandardCharsets.UTF_8)) {
+            Rule rule = Rule.parse(line);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        if (rules.isEmpty()) {
+            return this;
+        }
+        return new IgnoreRules(this, base, rules);
+    }
+
+    /**
+     * @param path path relative to walk root, '/'-separated
+     * @param directory true if path denotes directory
+     * @return true if path should be ignored
+     */
+    boolean isIgnored(String path, boolean directory) {
+        Boolean ignored = match(path, directory);
+        return ignored != null && ignored;
+    }
+
+    /**
+     * @param path path relative to walk root, '/'-separated
+     * @param directory true if path denotes directory
+     * @return result of last matching rule or null if no rule matches
+     */
+    private Boolean match(String path, boolean directory) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        String rel = base.isEmpty() ? path : path.substring(base.length() + 1);
+        String name = rel.substring(rel.lastIndexOf('/') + 1);
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            Rule rule = rules.get(i);
+            if (rule.matches(rel, name, directory)) {
+                return !rule.negated;
+            }
+        }
+        return parent == null ? null : parent.match(path, directory);
+    }
+
+    /**
+     * Single ignore pattern
+     */
+    private static class Rule {
+
+        final Pattern pattern;
+        final boolean negated;
+        final boolean directoryOnly;
+
+        /**
+         * True if pattern is matched against path relative to ignore file's directory rather than against name
+         */
+        final boolean anchored;
+
+        Rule(Pattern pattern, boolean negated, boolean directoryOnly, boolean anchored) {
+            this.pattern = pattern;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+        }
+
+        boolean matches(String rel, String name, boolean directory) {
+            if (directoryOnly && !directory) {
+                return false;
+            }
+            return pattern.matcher(anchored ? rel : name).matches();
+        }
+
+        /**
+         * @param line line of ignore file
+         * @return parsed rule or null if line contains no rule
+         */
+        static Rule parse(String line) {
+            line = StringUtils.stripEnd(line, " \t\r");
+            if (line.isEmpty() || line.startsWith("#")) {
+                return null;
+            }
+            boolean negated = false;
+            if (line.startsWith("!")) {
+                negated = true;
+                line = line.substring(1);
+            } else if (line.startsWith("\\")) {
+                line = line.substring(1);
+            }
+            boolean directoryOnly = false;
+            if (line.endsWith("/")) {
+                directoryOnly = true;
+                line = line.substring(0, line.length() - 1);
+            }
+            boolean anchored = line.contains("/");
+            if (line.startsWith("/")) {
+                line = line.substring(1);
+            }
+            if (line.isEmpty()) {
+                return null;
+            }
+            return new Rule(Pattern.compile(toRegex(line)), negated, directoryOnly, anchored);
+        }
+
+        /**
+         * @param glob glob pattern
+         * @return regular expression that matches the same paths
+         */
+        private static String toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            int length = glob.length();
+            for (int i = 0; i < length; i++) {
+                char c = glob.charAt(i);
+                switch (c) {
+                    case '*':
+                        if (i + 1 < length && glob.charAt(i + 1) == '*') {
+                            i++;
+                            if (i + 1 < length && glob.charAt(i + 1) == '/') {
+                                // "**/" matches zero or more directories
+                                i++;
+                                regex.append("(?:.*/)?");
+                            } else {
+                                regex.append(".*");
+                            }
+                        } else {
+                            regex.append("[^/]*");
+                        }
+                        break;
+                    case '?':
+                        regex.append("[^/]");
+                        break;
+                    case '[':
+                        int end = glob.indexOf(']', i + 1);
+                        if (end < 0) {
+                            regex.append("\\[");
+                        } else {
+                            String set = glob.substring(i + 1, end);
+                            if (set.startsWith("!")) {
+                                set = '^' + set.substring(1);
+                            }
+                            regex.append('[').append(set.replace("\\", "\\\\")).append(']');
+                            i = end;
+                        }
+                        break;
+                    case '\\':
+                        if (i + 1 < length) {
+                            i++;
+                            regex.append(Pattern.quote(String.valueOf(glob.charAt(i))));
+                        }
+                        break;
+                    default:
+                        if (Character.isLetterOrDigit(c) || c == '/') {
+                            regex.append(c);
+                        } else {
+                            regex.append('\\').append(c);
+                        }
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
@@ -1,56 +1,165 @@
-package com.sourcegraph.toolchain.language;
-
-import com.sourcegraph.toolchain.core.GraphWriter;
-import com.sourcegraph.toolchain.core.objects.DefKey;
-import com.sourcegraph.toolchain.core.objects.SourceUnit;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.Collection;
-
-/** Programming language support.
- */
-public interface Language {
-
-    /**
-     *
-     * @return language name, for example: php, objective-c. Names are transformed to lowercase
-     */
-    String getName();
-
-    /**
-     * Collects source units in given directory
-     * @param rootDir root directory to collect source units in
-     * @param repoUri repository URI
-     * @return collection of found source units (may be null)
-     * @throws IOException
-     */
-    Collection<SourceUnit> getSourceUnits(File rootDir, String repoUri) throws IOException;
-
-    /**
-     * Sets source unit to process. Called before graphing
-     * @param unit source unit to process
-     */
-    void setSourceUnit(SourceUnit unit);
-
-    /**
-     * Sets writer to write refs and defs to. Called before graphing
-     * @param writer writer to use
-     */
-    void setGraphWriter(GraphWriter writer);
-
-    /**
-     * Graphs current source units, expects data to be written to given writer
-     */
-    void graph();
-
-    /**
-     * Attemps to resolve given definition key. For example, we may construct definition key as @looks-like-def@foo()
-     * which language may resolve to class:foo() if possible (e.g. using name => defkey map). Toolchain asks to resolve
-     * all references marked as "candidate" when all definitions and refs were emitted and removes all candidate
-     * refs that weren't resolved
-     * @param source source key to resolve
-     * @return resolved key or null if resolution failed.
-     */
-    DefKey resolve(DefKey source);
-}
+package com.sourcegraph.toolchain.language;
+
+import com.google.gson.JsonElement;
+import com.sourcegraph.toolchain.core.GraphCache;
+import com.sourcegraph.toolchain.core.GraphWriter;
+import com.sourcegraph.toolchain.core.Metrics;
+import com.sourcegraph.toolchain.core.ProgressReporter;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.SourceUnit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/** Programming language support.
+ */
+public interface Language {
+
+    /**
+     *
+     * @return language name, for example: php, objective-c. Names are transformed to lowercase
+     */
+    String getName();
+
+    /**
+     * Collects source units in given directory
+     * @param rootDir root directory to collect source units in
+     * @param repoUri repository URI
+     * @return collection of found source units (may be null)
+     * @throws IOException
+     */
+    Collection<SourceUnit> getSourceUnits(File rootDir, String repoUri) throws IOException;
+
+    /**
+     * Makes source units of already collected files
+     * @param rootDir root directory to collect source units in
+     * @param repoUri repository URI
+     * @param files files collected by collector returned by {@link #getFileCollector(File, String)}
+     * @return collection of found source units (may be null)
+     * @throws IOException
+     */
+    Collection<SourceUnit> getSourceUnits(File rootDir, String repoUri, Collection<File> files) throws IOException;
+
+    /**
+     * @param rootDir root directory
+     * @param repoUri repository URI
+     * @return collector of source files that belong to language
+     */
+    FileCollector getFileCollector(File rootDir, String repoUri);
+
+    /**
+     * Sets source unit to process. Called before graphing
+     * @param unit source unit to process
+     */
+    void setSourceUnit(SourceUnit unit);
+
+    /**
+     * Sets writer to write refs and defs to. Called before graphing
+     * @param writer writer to use
+     */
+    void setGraphWriter(GraphWriter writer);
+
+    /**
+     * Sets number of worker threads to graph source unit files with. Called before graphing.
+     * When more than one worker is used, graph writer must be thread-safe
+     * @param workers number of workers (1 means sequential processing)
+     */
+    void setWorkers(int workers);
+
+    /**
+     * Sets cache to replay results of unchanged files from and to store results of processed files to.
+     * Called before graphing
+     * @param cache graph cache to use (null if caching is disabled)
+     */
+    void setGraphCache(GraphCache cache);
+
+    /**
+     * Enables or disables two-stage parsing (fast SLL prediction first, full LL prediction only for files that
+     * failed to parse with SLL). Enabled by default. Called before graphing
+     * @param enabled true to enable two-stage parsing
+     */
+    void setTwoStageParsing(boolean enabled);
+
+    /**
+     * Sets metrics to record per-file phase timings to
+     * @param metrics metrics to use
+     */
+    void setMetrics(Metrics metrics);
+
+    /**
+     * Sets limits single file may take to parse, files that go over them are skipped
+     * @param budget per-file parse budget
+     */
+    void setParseBudget(ParseBudget budget);
+
+    /**
+     * Enables grammar decision profiling, each parser is created with ANTLR profiling simulator
+     * and its decision profile is added to a given profiler
+     * @param profiler profiler to add decision profiles to, null disables profiling
+     */
+    void setGrammarProfiler(GrammarProfiler profiler);
+
+    /**
+     * Sets reporter to count graphed files, definitions and references with and to report graphing progress to
+     * @param reporter progress reporter to use
+     */
+    void setProgressReporter(ProgressReporter reporter);
+
+    /**
+     * Makes language collect symbols each graphed file contributes to language-wide symbol tables (for example,
+     * classes or functions), so that they could be passed to another process with {@link #getCollectedSymbols()}
+     * @param enabled true to collect symbols
+     */
+    void setCollectingSymbols(boolean enabled);
+
+    /**
+     * @return symbols contributed by files graphed so far (path relative to CWD => symbols in JSON form),
+     * empty unless symbol collection is enabled
+     */
+    Map<String, JsonElement> getCollectedSymbols();
+
+    /**
+     * Registers symbols collected by another process in language-wide symbol tables, so that references
+     * to definitions made by files graphed elsewhere could be resolved
+     * @param symbols symbols (path relative to CWD => symbols in JSON form)
+     */
+    void importSymbols(Map<String, JsonElement> symbols);
+
+    /**
+     * Parses source files found in a given directory without emitting anything to warm up parser caches,
+     * so that subsequent graphing does not pay warm-up cost
+     * @param rootDir directory to collect source files in
+     */
+    void warmUp(File rootDir);
+
+    /**
+     * Graphs current source units, expects data to be written to given writer
+     */
+    void graph();
+
+    /**
+     * @return files skipped during last graphing because they went over parse budget
+     * (path relative to CWD => reason), sorted by path
+     */
+    Map<String, String> getSkippedFiles();
+
+    /**
+     * Attemps to resolve given definition key. For example, we may construct definition key as @looks-like-def@foo()
+     * which language may resolve to class:foo() if possible (e.g. using name => defkey map). Toolchain asks to resolve
+     * all references marked as "candidate" when all definitions and refs were emitted and removes all candidate
+     * refs that weren't resolved
+     * @param source source key to resolve
+     * @return resolved key or null if resolution failed.
+     */
+    DefKey resolve(DefKey source);
+
+    /**
+     * Resolves given definition keys in bulk, each distinct key is resolved once no matter whether resolution
+     * succeeds or not
+     * @param sources source keys to resolve
+     * @return resolved keys (source key => resolved key), keys that weren't resolved are absent
+     */
+    Map<DefKey, DefKey> resolveAll(Collection<DefKey> sources);
+}
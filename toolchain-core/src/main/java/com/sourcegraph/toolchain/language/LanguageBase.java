@@ -1,296 +1,938 @@
-package com.sourcegraph.toolchain.language;
-
-import com.sourcegraph.toolchain.core.GraphWriter;
-import com.sourcegraph.toolchain.core.PathUtil;
-import com.sourcegraph.toolchain.core.objects.Def;
-import com.sourcegraph.toolchain.core.objects.Ref;
-import com.sourcegraph.toolchain.core.objects.SourceUnit;
-import org.antlr.v4.runtime.*;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.File;
-import java.io.IOException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.*;
-import java.util.stream.Collectors;
-
-/**
- * Base class for ANTLR-based language support.
- */
-public abstract class LanguageBase implements com.sourcegraph.toolchain.language.Language {
-
-    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageBase.class);
-
-    /**
-     * Contains processing path to current file (for example B was scheduled for processing from C scheduled from A)
-     */
-    protected Stack<String> processingPath = new Stack<>();
-
-    /**
-     * Writer object to use
-     */
-    protected GraphWriter writer;
-
-    /**
-     * Source unit to graph
-     */
-    protected SourceUnit unit;
-
-    /**
-     * List of files that were already visited during current session
-     */
-    private Set<File> visited = new HashSet<>();
-
-    /**
-     * List of files to process converted to set for fast lookup purposes
-     */
-    private  Set<File> files;
-
-    @Override
-    public void setSourceUnit(SourceUnit unit) {
-        this.unit = unit;
-    }
-
-    @Override
-    public void setGraphWriter(GraphWriter writer) {
-        this.writer = writer;
-    }
-
-    /**
-     * Base implementation expects single source unit per language
-     */
-    @Override
-    public Collection<SourceUnit> getSourceUnits(File rootDir, String repoUri) throws IOException {
-        return Collections.singleton(getSourceUnit(rootDir, repoUri));
-    }
-
-    @Override
-    public void graph() {
-        // Converting unit file's to set for faster lookup
-        this.files = new HashSet<>();
-        for (String file : unit.Files) {
-            File sourceFile = new File(file);
-            if (sourceFile.isFile()) {
-                this.files.add(sourceFile);
-            } else {
-                LOGGER.warn("File {} does not exist or not a file, skipping", sourceFile);
-            }
-        }
-        // Processing files sequentially
-        this.files.forEach(this::process);
-    }
-
-    /**
-     * Processes single file. May be called by parser tree listener to add more file for processing.
-     * For example when parser encountered "#include "foo" it may ask to process foo before current file
-     * @param sourceFile source file to process
-     */
-    public void process(File sourceFile) {
-        // We do not accept not-existing or not-a-files
-        if (!sourceFile.isFile()) {
-            LOGGER.debug("Requested processing of not-existing {}", sourceFile);
-            return;
-        }
-        // Already visited
-        if (visited.contains(sourceFile)) {
-            return;
-        }
-        // Not in the list
-        // TODO (alexsaveliev)
-        if (!files.contains(sourceFile)) {
-            LOGGER.debug("Requested processing of outer file {}", sourceFile);
-            return;
-        }
-        LOGGER.info("Processing {}", sourceFile);
-        visited.add(sourceFile);
-
-        processingPath.push(PathUtil.relativizeCwd(sourceFile.toPath()));
-
-        try {
-            parse(sourceFile);
-        } catch (Exception e) {
-            LOGGER.error("Failed to process {} - unexpected error", sourceFile, e);
-        } finally {
-            processingPath.pop();
-        }
-    }
-
-    /**
-     * @param ctx parser rule context
-     * @param kind def's kind (i.e. "const")
-     * @return Def object initialized with the proper info (span, text, file)
-     */
-    public Def def(ParserRuleContext ctx, String kind) {
-        Def def = new Def();
-        def.defStart = ctx.getStart().getStartIndex();
-        def.defEnd = ctx.getStop().getStopIndex() + 1;
-        def.name = ctx.getText();
-        def.file = getCurrentFile();
-        def.kind = kind;
-        return def;
-    }
-
-    /**
-     * @param token lexer's token
-     * @param kind def's kind (i.e. "const")
-     * @return Def object initialized with the proper info (span, text, file)
-     */
-    public Def def(Token token, String kind) {
-        Def def = new Def();
-        def.defStart = token.getStartIndex();
-        def.defEnd = token.getStopIndex() + 1;
-        def.name = token.getText();
-        def.file = getCurrentFile();
-        def.kind = kind;
-        return def;
-    }
-
-    /**
-     * @param ctx parser rule context
-     * @return new Ref object initialized with proper info (span, file)
-     */
-    public Ref ref(ParserRuleContext ctx) {
-        Ref ref = new Ref();
-        ref.start = ctx.getStart().getStartIndex();
-        ref.end = ctx.getStop().getStopIndex() + 1;
-        ref.file = getCurrentFile();
-        return ref;
-    }
-
-    /**
-     * @param token lexer token
-     * @return new Ref object initialized with proper info (span, file)
-     */
-    public Ref ref(Token token) {
-        Ref ref = new Ref();
-        ref.start = token.getStartIndex();
-        ref.end = token.getStopIndex() + 1;
-        ref.file = getCurrentFile();
-        return ref;
-    }
-
-    /**
-     * Emits def object (and automatically emits ref)
-     * @param def definition to emit
-     */
-    public void emit(Def def) {
-        writer.writeDef(def);
-        // auto-adding self-references
-        Ref ref = new Ref();
-        ref.defKey = def.defKey;
-        ref.def = true;
-        ref.start = def.defStart;
-        ref.end = def.defEnd;
-        ref.file = def.file;
-        emit(ref);
-    }
-
-    /**
-     * Emits ref object
-     * @param ref reference to emit
-     */
-    public void emit(Ref ref) {
-        writer.writeRef(ref);
-    }
-
-    /**
-     * @return path (relative to CWD) to file being processed
-     */
-    public String getCurrentFile() {
-        return processingPath.peek();
-    }
-
-    /**
-     * Parses given source file and emits defs and refs.
-     * Implementation expects to do something like
-     * {code}
-     * GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
-     * (LANGUAGE)Lexer.class,
-     * (LANGUAGE)Parser.class,
-     * new DefaultErrorListener(sourceFile));
-     * ParseTree tree = (((LANGUAGE)Parser) configuration.parser).(ROOTELEMENT)();
-     * ParseTreeWalker walker = new ParseTreeWalker();
-     * walker.walk(new (LANGUAGE)ParseTreeListener(this), tree);
-     * {/code}
-     * We expect that implementation will ask ANTLR to tokenize and parse source file and then will
-     * traverse AST built by ANTLR emitting defs and refs
-     * @param sourceFile source file to process
-     * @throws ParseException
-     */
-    protected abstract void parse(File sourceFile) throws ParseException;
-
-    /**
-     * @param rootDir root directory
-     * @param repoUri repository URI
-     * @return file collector. In a basic case we should construct ExtensionBasedFileCollector and feed it with proper
-     * extensions and includes/exludes
-     */
-    protected abstract FileCollector getFileCollector(File rootDir, String repoUri);
-
-    /**
-     * Makes single source unit from a given source dir, collecting all source files that match current language
-     * @param rootDir root directory
-     * @param repoUri repository URI
-     * @return source unit
-     * @throws IOException
-     */
-    private SourceUnit getSourceUnit(File rootDir, String repoUri) throws IOException {
-        SourceUnit unit = new SourceUnit();
-        unit.Name = getName();
-        unit.Dir = PathUtil.relativizeCwd(rootDir.toPath());
-        Collection<File> files = getFileCollector(rootDir, repoUri).collect(rootDir);
-        unit.Files = files.stream().map(File::toString).collect(Collectors.toList());
-        return unit;
-    }
-
-    /**
-     * Helper method to construct ANTLR lexer and parser.
-     * @param sourceFile source of characters to feed to lexer
-     * @param lexerClass lexer's implementation class
-     * @param parserClass parser's implementation class
-     * @param errorListener error listener to use
-     * @return structure that holds constructed lexer and parser objects.
-     * Lexer is bound to character stream made from source file; parser is bound to lexer
-     * @throws IOException
-     * @throws NoSuchMethodException
-     * @throws InstantiationException
-     * @throws IllegalAccessException
-     * @throws InvocationTargetException
-     */
-    protected static GrammarConfiguration createGrammarConfiguration(File sourceFile,
-                                                                     Class<? extends Lexer> lexerClass,
-                                                                     Class<? extends Parser> parserClass,
-                                                                     ANTLRErrorListener errorListener)
-            throws IOException,
-            NoSuchMethodException,
-            InstantiationException, IllegalAccessException, InvocationTargetException {
-
-        CharStream stream = new ANTLRFileStream(sourceFile.getPath());
-        Constructor<? extends Lexer> lexerConstructor = lexerClass.getConstructor(CharStream.class);
-
-        Lexer lexer = lexerConstructor.newInstance(stream);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(errorListener);
-
-        TokenStream tokens = new CommonTokenStream(lexer);
-        Constructor<? extends Parser> parserConstructor = parserClass.getConstructor(TokenStream.class);
-        Parser parser = parserConstructor.newInstance(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(errorListener);
-
-        GrammarConfiguration configuration = new GrammarConfiguration();
-        configuration.lexer = lexer;
-        configuration.parser = parser;
-        return configuration;
-    }
-
-    /**
-     * Holder for parser and lexer objects
-     */
-    protected static class GrammarConfiguration {
-        public Lexer lexer;
-        public Parser parser;
-    }
-}
+package com.sourcegraph.toolchain.language;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.sourcegraph.toolchain.core.FileTable;
+import com.sourcegraph.toolchain.core.GraphCache;
+import com.sourcegraph.toolchain.core.GraphWriter;
+import com.sourcegraph.toolchain.core.Metrics;
+import com.sourcegraph.toolchain.core.PathUtil;
+import com.sourcegraph.toolchain.core.ProgressReporter;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.core.objects.Ref;
+import com.sourcegraph.toolchain.core.objects.SourceUnit;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Base class for ANTLR-based language support.
+ */
+public abstract class LanguageBase implements com.sourcegraph.toolchain.language.Language {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageBase.class);
+
+    /**
+     * Minimal number of keys worth resolving by a separate worker
+     */
+    private static final int MIN_RESOLVE_PARTITION = 4096;
+
+    /**
+     * Converts language-specific symbols to JSON, keeps null values (for example, variables of unknown type)
+     */
+    private static final Gson SYMBOLS_GSON = new GsonBuilder().serializeNulls().create();
+
+    /**
+     * Contains processing path to current file (for example B was scheduled for processing from C scheduled from A).
+     * Each graphing worker thread has its own processing path made of file IDs, see {@link FileTable}
+     */
+    protected ThreadLocal<Stack<Integer>> processingPath = ThreadLocal.withInitial(Stack::new);
+
+    /**
+     * Writer object to use
+     */
+    protected GraphWriter writer;
+
+    /**
+     * Source unit to graph
+     */
+    protected SourceUnit unit;
+
+    /**
+     * Graph cache to use, null if caching is disabled
+     */
+    private GraphCache cache;
+
+    /**
+     * Cache entries being recorded for files being processed (by each graphing worker)
+     */
+    private ThreadLocal<Stack<GraphCache.Entry>> cacheEntries = ThreadLocal.withInitial(Stack::new);
+
+    /**
+     * Files that were already visited during current session, each one is either processed or being processed
+     * by some graphing worker
+     */
+    private final Map<File, Visit> visited = new ConcurrentHashMap<>();
+
+    /**
+     * Visits graphing workers wait for (worker => visit), used to detect workers that wait for each other
+     */
+    private final Map<Thread, Visit> waiting = new HashMap<>();
+
+    /**
+     * List of files to process converted to set for fast lookup purposes
+     */
+    private  Set<File> files;
+
+    /**
+     * Number of worker threads to graph files with
+     */
+    private int workers = 1;
+
+    /**
+     * Indicates that files should be parsed with SLL prediction first
+     */
+    private boolean twoStageParsing = true;
+
+    /**
+     * Number of files parsed with SLL prediction
+     */
+    private final AtomicInteger sllParses = new AtomicInteger();
+
+    /**
+     * Number of files that failed to parse with SLL prediction and were parsed again with full LL prediction
+     */
+    private final AtomicInteger llFallbacks = new AtomicInteger();
+
+    /**
+     * Metrics to record phase timings to
+     */
+    private Metrics metrics = Metrics.DISABLED;
+
+    /**
+     * Reporter to count graphed files, definitions and references with
+     */
+    private ProgressReporter progress = ProgressReporter.DISABLED;
+
+    /**
+     * Limits single file may take to parse
+     */
+    private ParseBudget parseBudget = ParseBudget.UNLIMITED;
+
+    /**
+     * Profiler to add grammar decision profiles to, null if profiling is disabled
+     */
+    private GrammarProfiler grammarProfiler;
+
+    /**
+     * Files that went over parse budget (path relative to CWD => reason)
+     */
+    private final Map<String, String> skipped = new ConcurrentHashMap<>();
+
+    /**
+     * Indicates that symbols contributed by each file should be collected for other processes
+     */
+    private boolean collectingSymbols;
+
+    /**
+     * Symbols contributed by graphed files (path relative to CWD => symbols)
+     */
+    private final Map<String, JsonElement> collectedSymbols = new ConcurrentHashMap<>();
+
+    @Override
+    public void setSourceUnit(SourceUnit unit) {
+        this.unit = unit;
+    }
+
+    @Override
+    public void setGraphWriter(GraphWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void setWorkers(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    @Override
+    public void setGraphCache(GraphCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void setTwoStageParsing(boolean enabled) {
+        this.twoStageParsing = enabled;
+    }
+
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setProgressReporter(ProgressReporter reporter) {
+        this.progress = reporter;
+    }
+
+    @Override
+    public void setParseBudget(ParseBudget budget) {
+        this.parseBudget = budget;
+    }
+
+    @Override
+    public void setGrammarProfiler(GrammarProfiler profiler) {
+        this.grammarProfiler = profiler;
+    }
+
+    @Override
+    public Map<String, String> getSkippedFiles() {
+        return new TreeMap<>(skipped);
+    }
+
+    @Override
+    public void setCollectingSymbols(boolean enabled) {
+        this.collectingSymbols = enabled;
+    }
+
+    @Override
+    public Map<String, JsonElement> getCollectedSymbols() {
+        return new TreeMap<>(collectedSymbols);
+    }
+
+    @Override
+    public void importSymbols(Map<String, JsonElement> symbols) {
+        for (Map.Entry<String, JsonElement> entry : symbols.entrySet()) {
+            restoreSymbols(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Base implementation expects single source unit per language
+     */
+    @Override
+    public Collection<SourceUnit> getSourceUnits(File rootDir, String repoUri) throws IOException {
+        return getSourceUnits(rootDir, repoUri, getFileCollector(rootDir, repoUri).collect(rootDir));
+    }
+
+    /**
+     * Base implementation expects single source unit per language
+     */
+    @Override
+    public Collection<SourceUnit> getSourceUnits(File rootDir, String repoUri, Collection<File> files)
+            throws IOException {
+        return Collections.singleton(getSourceUnit(rootDir, files));
+    }
+
+    @Override
+    public void graph() {
+        skipped.clear();
+        collectedSymbols.clear();
+        // Converting unit file's to set for faster lookup
+        this.files = new HashSet<>();
+        for (String file : unit.Files) {
+            File sourceFile = new File(file);
+            if (sourceFile.isFile()) {
+                this.files.add(sourceFile);
+            } else {
+                LOGGER.warn("File {} does not exist or not a file, skipping", sourceFile);
+            }
+        }
+        long totalBytes = 0;
+        for (File sourceFile : this.files) {
+            totalBytes += sourceFile.length();
+        }
+        progress.start(this.files.size(), totalBytes);
+        try {
+            if (workers == 1) {
+                // Processing files sequentially
+                this.files.forEach(this::process);
+            } else {
+                graphInParallel();
+            }
+        } finally {
+            progress.stop();
+        }
+        if (twoStageParsing) {
+            LOGGER.info("{} files parsed with SLL prediction, {} of them required LL fallback",
+                    sllParses.get(), llFallbacks.get());
+        }
+        if (!skipped.isEmpty()) {
+            LOGGER.warn("{} files were skipped because they went over parse budget", skipped.size());
+        }
+        DFACacheManager.getInstance().report();
+    }
+
+    @Override
+    public void warmUp(File rootDir) {
+        Collection<File> sourceFiles;
+        try {
+            sourceFiles = getFileCollector(rootDir, StringUtils.EMPTY).collect(rootDir);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to collect warm-up files in {}", rootDir, e);
+            return;
+        }
+        LOGGER.info("Warming up {} using {} files", getName(), sourceFiles.size());
+        for (File sourceFile : sourceFiles) {
+            try {
+                parseWithoutEmitting(sourceFile);
+            } catch (Exception e) {
+                LOGGER.debug("Failed to parse warm-up file {}", sourceFile, e);
+            }
+        }
+        DFACacheManager.getInstance().report();
+    }
+
+    /**
+     * Resolves distinct source keys one by one using {@link #resolve(DefKey)}. Large key sets are split into
+     * partitions resolved by worker threads, so resolve() should be thread-safe when multiple workers are used
+     */
+    @Override
+    public Map<DefKey, DefKey> resolveAll(Collection<DefKey> sources) {
+        List<DefKey> keys = new ArrayList<>(new HashSet<>(sources));
+        int partitions = Math.min(workers, keys.size() / MIN_RESOLVE_PARTITION);
+        if (partitions <= 1) {
+            return resolvePartition(keys);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(partitions, new WorkerThreadFactory());
+        try {
+            List<Future<Map<DefKey, DefKey>>> futures = new ArrayList<>(partitions);
+            int partitionSize = (keys.size() + partitions - 1) / partitions;
+            for (int i = 0; i < keys.size(); i += partitionSize) {
+                List<DefKey> partition = keys.subList(i, Math.min(keys.size(), i + partitionSize));
+                futures.add(executor.submit(() -> resolvePartition(partition)));
+            }
+            Map<DefKey, DefKey> ret = new HashMap<>();
+            for (Future<Map<DefKey, DefKey>> future : futures) {
+                ret.putAll(future.get());
+            }
+            return ret;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving references", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to resolve references", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param keys distinct source keys
+     * @return resolved keys (source key => resolved key)
+     */
+    private Map<DefKey, DefKey> resolvePartition(Collection<DefKey> keys) {
+        Map<DefKey, DefKey> ret = new HashMap<>();
+        for (DefKey key : keys) {
+            DefKey resolved = resolve(key);
+            if (resolved != null) {
+                ret.put(key, resolved);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Processes files using a pool of worker threads. Files scheduled by parse tree listeners (includes, autoload)
+     * are processed by the worker that requested them, each file is still processed at most once
+     */
+    private void graphInParallel() {
+        LOGGER.debug("Graphing {} files using {} workers", files.size(), workers);
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory());
+        Map<File, Future<?>> futures = new LinkedHashMap<>();
+        this.files.forEach(file -> futures.put(file, executor.submit(() -> process(file))));
+        executor.shutdown();
+        try {
+            for (Map.Entry<File, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    // errors (for example, StackOverflowError in parser) are not caught by process()
+                    LOGGER.error("Failed to process {} - unexpected error", entry.getKey(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while waiting for graphing workers");
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes single file. May be called by parser tree listener to add more file for processing.
+     * For example when parser encountered "#include "foo" it may ask to process foo before current file
+     * @param sourceFile source file to process
+     */
+    public void process(File sourceFile) {
+        // Not in the list, unit files are known to exist
+        // TODO (alexsaveliev)
+        if (!files.contains(sourceFile)) {
+            if (sourceFile.isFile()) {
+                LOGGER.debug("Requested processing of outer file {}", sourceFile);
+            } else {
+                LOGGER.debug("Requested processing of not-existing {}", sourceFile);
+            }
+            return;
+        }
+        dependsOn(sourceFile);
+        Visit existing = visited.get(sourceFile);
+        Visit visit = null;
+        if (existing == null) {
+            visit = new Visit();
+            existing = visited.putIfAbsent(sourceFile, visit);
+        }
+        if (existing != null) {
+            // Already visited (or being processed by another worker)
+            await(existing);
+            return;
+        }
+        int fileId = FileTable.getInstance().getId(sourceFile);
+        String file = FileTable.getInstance().getPath(fileId);
+        progress.startFile(sourceFile);
+
+        Stack<Integer> path = processingPath.get();
+        path.push(fileId);
+        metrics.startFile(file);
+
+        try {
+            if (parseBudget.getMaxBytes() > 0 && sourceFile.length() > parseBudget.getMaxBytes()) {
+                throw new ParseBudgetExceededException("file is larger than " + parseBudget.getMaxBytes() + " bytes");
+            }
+            if (cache == null) {
+                parseAndCollect(sourceFile, file);
+            } else {
+                parseOrReplay(sourceFile, file);
+            }
+        } catch (Exception e) {
+            // languages wrap parser exceptions into ParseException
+            int index = ExceptionUtils.indexOfThrowable(e, ParseBudgetExceededException.class);
+            if (index >= 0) {
+                String reason = ExceptionUtils.getThrowables(e)[index].getMessage();
+                LOGGER.warn("Skipping {} - {}", file, reason);
+                skipped.put(file, reason);
+            } else {
+                LOGGER.error("Failed to process {} - unexpected error", sourceFile, e);
+            }
+        } finally {
+            visit.done.countDown();
+            path.pop();
+            writer.endFile(file);
+            metrics.endFile();
+            progress.endFile(sourceFile.length());
+            DFACacheManager.getInstance().check();
+        }
+    }
+
+    /**
+     * Records that file being processed depends on a given one, so that graph cache entry of file being processed
+     * is invalidated when given file changes. Called by {@link #process(File)}, languages that skip requesting
+     * file they depend on (for example, because it was already requested) should call it directly
+     * @param sourceFile file that file being processed depends on
+     */
+    protected void dependsOn(File sourceFile) {
+        if (cache == null || !files.contains(sourceFile)) {
+            return;
+        }
+        Stack<GraphCache.Entry> entries = cacheEntries.get();
+        if (!entries.isEmpty()) {
+            String file = FileTable.getInstance().relativize(sourceFile.getPath());
+            entries.peek().dependencies.put(file, cache.hash(file));
+        }
+    }
+
+    /**
+     * Waits until file being processed by another graphing worker is complete, so that symbols it contributes
+     * are complete too. Does not wait if file is being processed by current worker (for example, files including
+     * each other) or if its worker waits, directly or not, for current one. Such files are treated as visited,
+     * the same way sequential graphing treats them
+     * @param visit visit of a file
+     */
+    private void await(Visit visit) {
+        Thread current = Thread.currentThread();
+        if (visit.worker == current || visit.done.getCount() == 0) {
+            return;
+        }
+        synchronized (waiting) {
+            for (Visit v = visit; v != null; v = waiting.get(v.worker)) {
+                if (v.worker == current) {
+                    return;
+                }
+            }
+            waiting.put(current, visit);
+        }
+        try {
+            visit.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (waiting) {
+                waiting.remove(current);
+            }
+        }
+    }
+
+    /**
+     * Parses file and collects symbols it contributed if symbol collection is enabled
+     * @param sourceFile source file to process
+     * @param file path (relative to CWD) to source file
+     * @throws ParseException
+     */
+    private void parseAndCollect(File sourceFile, String file) throws ParseException {
+        if (!collectingSymbols) {
+            parse(sourceFile);
+            return;
+        }
+        boolean parsed = false;
+        try {
+            parse(sourceFile);
+            parsed = true;
+        } finally {
+            Object symbols = getSymbols(file);
+            if (parsed && symbols != null) {
+                collectedSymbols.put(file, SYMBOLS_GSON.toJsonTree(symbols));
+            }
+        }
+    }
+
+    /**
+     * Replays results of a given file from graph cache if file and its dependencies were not changed,
+     * otherwise parses file and stores results in cache
+     * @param sourceFile source file to process
+     * @param file path (relative to CWD) to source file
+     * @throws ParseException
+     */
+    private void parseOrReplay(File sourceFile, String file) throws ParseException {
+        GraphCache.Entry entry = cache.get(getName(), file);
+        if (entry != null) {
+            LOGGER.debug("Replaying {} from graph cache", file);
+            // dependencies were processed before file itself
+            for (String dependency : entry.dependencies.keySet()) {
+                process(new File(dependency));
+            }
+            if (entry.symbols != null) {
+                restoreSymbols(file, entry.symbols);
+                if (collectingSymbols) {
+                    collectedSymbols.put(file, entry.symbols);
+                }
+            }
+            entry.defs.forEach(writer::writeDef);
+            entry.refs.forEach(writer::writeRef);
+            progress.addDefs(entry.defs.size());
+            progress.addRefs(entry.refs.size());
+            return;
+        }
+
+        entry = new GraphCache.Entry();
+        Stack<GraphCache.Entry> entries = cacheEntries.get();
+        entries.push(entry);
+        boolean parsed = false;
+        try {
+            parse(sourceFile);
+            parsed = true;
+        } finally {
+            entries.pop();
+            Object symbols = getSymbols(file);
+            if (parsed) {
+                if (symbols != null) {
+                    entry.symbols = SYMBOLS_GSON.toJsonTree(symbols);
+                    if (collectingSymbols) {
+                        collectedSymbols.put(file, entry.symbols);
+                    }
+                }
+                cache.put(getName(), file, entry);
+            }
+        }
+    }
+
+    /**
+     * Invokes parser rule (usually the root one) on a given grammar configuration.
+     * When two-stage parsing is enabled, parser tries SLL prediction without error recovery first (that is
+     * significantly faster) and only if it fails, rewinds input and parses it again with full LL prediction
+     * and default error handling. Lexing and parsing are interrupted with {@link ParseBudgetExceededException}
+     * when file goes over parse budget. If file has too many syntax errors and partial results should be kept,
+     * parse tree built so far is returned instead. Syntax errors are logged as a single per-file summary.
+     * When grammar profiling is enabled, parser's decisions are profiled
+     * @param configuration grammar configuration produced by createGrammarConfiguration
+     * @param rule function that invokes parser rule, for example parser -> ((FooParser) parser).compilationUnit()
+     * @return parse tree
+     */
+    protected ParserRuleContext parseRule(GrammarConfiguration configuration,
+                                          Function<Parser, ParserRuleContext> rule) {
+        Parser parser = configuration.parser;
+        WatchedTokenStream watched = null;
+        if (parseBudget.isParseLimited() && parser.getInputStream() instanceof WatchedTokenStream) {
+            watched = (WatchedTokenStream) parser.getInputStream();
+            watched.setWatchdog(new ParseWatchdog(parseBudget));
+        }
+        if (grammarProfiler != null) {
+            parser.setProfile(true);
+        }
+        DefaultErrorListener errorListener = configuration.errorListener instanceof DefaultErrorListener ?
+                (DefaultErrorListener) configuration.errorListener :
+                null;
+        if (errorListener != null) {
+            errorListener.setErrorBudget(parseBudget.getMaxErrors(), parser);
+        }
+        try {
+            if (metrics.isEnabled() && parser.getInputStream() instanceof BufferedTokenStream) {
+                // tokenizing whole file upfront to tell lexing time from parsing time
+                try (Metrics.Timer ignored = metrics.start(Metrics.Phase.LEX)) {
+                    ((BufferedTokenStream) parser.getInputStream()).fill();
+                }
+            }
+            try (Metrics.Timer ignored = metrics.start(Metrics.Phase.PARSE)) {
+                ParserRuleContext tree = parseRule(configuration, parser, rule);
+                metrics.addSyntaxErrors(parser.getNumberOfSyntaxErrors());
+                return tree;
+            }
+        } catch (ParseBudgetExceededException e) {
+            if (errorListener == null ||
+                    errorListener.getPartialTree() == null ||
+                    !parseBudget.isKeepingPartialResults()) {
+                throw e;
+            }
+            LOGGER.warn("Parsing of {} was interrupted - {}, keeping partial results",
+                    parser.getSourceName(), e.getMessage());
+            metrics.addSyntaxErrors(errorListener.getErrorCount());
+            return errorListener.getPartialTree();
+        } finally {
+            if (errorListener != null) {
+                errorListener.report();
+            }
+            if (watched != null) {
+                watched.setWatchdog(null);
+            }
+            if (grammarProfiler != null) {
+                // files that went over parse budget are the most interesting ones
+                grammarProfiler.record(parser);
+            }
+        }
+    }
+
+    /**
+     * Invokes parser rule using SLL prediction first if two-stage parsing is enabled
+     * @param configuration grammar configuration
+     * @param parser parser to use
+     * @param rule function that invokes parser rule
+     * @return parse tree
+     */
+    private ParserRuleContext parseRule(GrammarConfiguration configuration,
+                                        Parser parser,
+                                        Function<Parser, ParserRuleContext> rule) {
+        if (!twoStageParsing) {
+            return rule.apply(parser);
+        }
+        sllParses.incrementAndGet();
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            // processing path is empty during warm-up
+            LOGGER.debug("SLL parsing of {} failed, falling back to LL", parser.getSourceName());
+            llFallbacks.incrementAndGet();
+        }
+        parser.setErrorHandler(new DefaultErrorStrategy());
+        parser.addErrorListener(configuration.errorListener);
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        parser.reset();
+        return rule.apply(parser);
+    }
+
+    /**
+     * Walks parse tree with a given listener
+     * @param listener listener that emits defs and refs
+     * @param tree parse tree to walk
+     */
+    protected void walk(ParseTreeListener listener, ParseTree tree) {
+        try (Metrics.Timer ignored = metrics.start(Metrics.Phase.WALK)) {
+            new ParseTreeWalker().walk(listener, tree);
+        }
+    }
+
+    /**
+     * @return true if graph cache is used or symbol collection is enabled and language should collect symbols
+     * contributed by each file
+     */
+    protected boolean isCollectingSymbols() {
+        return cache != null || collectingSymbols;
+    }
+
+    /**
+     * Collects symbols given file contributed to language-wide symbol tables (for example, classes or functions)
+     * to keep them in graph cache or pass them to another process. Called after file was parsed when graph cache
+     * is used or symbol collection is enabled
+     * @param file path (relative to CWD) to file
+     * @return JSON-serializable object or null if file contributed nothing
+     */
+    protected Object getSymbols(String file) {
+        return null;
+    }
+
+    /**
+     * Registers symbols restored from graph cache or collected by another process in language-wide symbol tables
+     * @param file path (relative to CWD) to file
+     * @param symbols symbols produced by {@link #getSymbols(String)} in JSON form
+     */
+    protected void restoreSymbols(String file, JsonElement symbols) {
+    }
+
+    /**
+     * @param ctx parser rule context
+     * @param kind def's kind (i.e. "const")
+     * @return Def object initialized with the proper info (span, text, file)
+     */
+    public Def def(ParserRuleContext ctx, String kind) {
+        Def def = new Def();
+        def.defStart = ctx.getStart().getStartIndex();
+        def.defEnd = ctx.getStop().getStopIndex() + 1;
+        def.name = TokenText.toString(ctx);
+        def.file = getCurrentFileId();
+        def.kind = kind;
+        return def;
+    }
+
+    /**
+     * @param token lexer's token
+     * @param kind def's kind (i.e. "const")
+     * @return Def object initialized with the proper info (span, text, file)
+     */
+    public Def def(Token token, String kind) {
+        Def def = new Def();
+        def.defStart = token.getStartIndex();
+        def.defEnd = token.getStopIndex() + 1;
+        def.name = token.getText();
+        def.file = getCurrentFileId();
+        def.kind = kind;
+        return def;
+    }
+
+    /**
+     * @param ctx parser rule context
+     * @return new Ref object initialized with proper info (span, file)
+     */
+    public Ref ref(ParserRuleContext ctx) {
+        Ref ref = new Ref();
+        ref.start = ctx.getStart().getStartIndex();
+        ref.end = ctx.getStop().getStopIndex() + 1;
+        ref.file = getCurrentFileId();
+        return ref;
+    }
+
+    /**
+     * @param token lexer token
+     * @return new Ref object initialized with proper info (span, file)
+     */
+    public Ref ref(Token token) {
+        Ref ref = new Ref();
+        ref.start = token.getStartIndex();
+        ref.end = token.getStopIndex() + 1;
+        ref.file = getCurrentFileId();
+        return ref;
+    }
+
+    /**
+     * Emits def object (and automatically emits ref)
+     * @param def definition to emit
+     */
+    public void emit(Def def) {
+        try (Metrics.Timer ignored = metrics.start(Metrics.Phase.EMIT)) {
+            writer.writeDef(def);
+        }
+        progress.addDefs(1);
+        if (cache != null) {
+            Stack<GraphCache.Entry> entries = cacheEntries.get();
+            if (!entries.isEmpty()) {
+                entries.peek().defs.add(def);
+            }
+        }
+        // auto-adding self-references
+        Ref ref = new Ref();
+        ref.defKey = def.defKey;
+        ref.def = true;
+        ref.start = def.defStart;
+        ref.end = def.defEnd;
+        ref.file = def.file;
+        emit(ref);
+    }
+
+    /**
+     * Emits ref object
+     * @param ref reference to emit
+     */
+    public void emit(Ref ref) {
+        try (Metrics.Timer ignored = metrics.start(Metrics.Phase.EMIT)) {
+            writer.writeRef(ref);
+        }
+        progress.addRefs(1);
+        if (cache != null) {
+            Stack<GraphCache.Entry> entries = cacheEntries.get();
+            if (!entries.isEmpty()) {
+                entries.peek().refs.add(ref);
+            }
+        }
+    }
+
+    /**
+     * @return path (relative to CWD) to file being processed
+     */
+    public String getCurrentFile() {
+        return FileTable.getInstance().getPath(getCurrentFileId());
+    }
+
+    /**
+     * @return ID of file being processed
+     */
+    public int getCurrentFileId() {
+        return processingPath.get().peek();
+    }
+
+    /**
+     * Parses given source file and emits defs and refs.
+     * Implementation expects to do something like
+     * {code}
+     * GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
+     * (LANGUAGE)Lexer.class,
+     * (LANGUAGE)Parser.class,
+     * new DefaultErrorListener(sourceFile));
+     * ParseTree tree = parseRule(configuration, parser -> (((LANGUAGE)Parser) parser).(ROOTELEMENT)());
+     * walk(new (LANGUAGE)ParseTreeListener(this), tree);
+     * {/code}
+     * We expect that implementation will ask ANTLR to tokenize and parse source file and then will
+     * traverse AST built by ANTLR emitting defs and refs
+     * @param sourceFile source file to process
+     * @throws ParseException
+     */
+    protected abstract void parse(File sourceFile) throws ParseException;
+
+    /**
+     * Parses given source file without walking parse tree, used to warm up ANTLR caches.
+     * Languages that support warm-up should override it, base implementation does nothing
+     * @param sourceFile source file to parse
+     * @throws ParseException
+     */
+    protected void parseWithoutEmitting(File sourceFile) throws ParseException {
+    }
+
+    /**
+     * @param rootDir root directory
+     * @param repoUri repository URI
+     * @return file collector. In a basic case we should construct ExtensionBasedFileCollector and feed it with proper
+     * extensions and includes/exludes
+     */
+    @Override
+    public abstract FileCollector getFileCollector(File rootDir, String repoUri);
+
+    /**
+     * Makes single source unit from a given source dir and source files that match current language
+     * @param rootDir root directory
+     * @param files source files
+     * @return source unit
+     */
+    private SourceUnit getSourceUnit(File rootDir, Collection<File> files) {
+        SourceUnit unit = new SourceUnit();
+        unit.Name = getName();
+        unit.Dir = PathUtil.relativizeCwd(rootDir.toPath());
+        unit.Files = files.stream().map(File::toString).collect(Collectors.toList());
+        return unit;
+    }
+
+    /**
+     * Helper method to construct ANTLR lexer and parser.
+     * @param sourceFile source of characters to feed to lexer
+     * @param lexerClass lexer's implementation class
+     * @param parserClass parser's implementation class
+     * @param errorListener error listener to use
+     * @return structure that holds constructed lexer and parser objects.
+     * Lexer is bound to character stream made from source file; parser is bound to lexer
+     * @throws IOException
+     * @throws NoSuchMethodException
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    protected static GrammarConfiguration createGrammarConfiguration(File sourceFile,
+                                                                     Class<? extends Lexer> lexerClass,
+                                                                     Class<? extends Parser> parserClass,
+                                                                     ANTLRErrorListener errorListener)
+            throws IOException,
+            NoSuchMethodException,
+            InstantiationException, IllegalAccessException, InvocationTargetException {
+
+        CharStream stream = new MappedFileStream(sourceFile);
+        Constructor<? extends Lexer> lexerConstructor = lexerClass.getConstructor(CharStream.class);
+
+        Lexer lexer = lexerConstructor.newInstance(stream);
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(errorListener);
+        DFACacheManager.getInstance().register(lexer);
+
+        TokenStream tokens = new WatchedTokenStream(lexer);
+        Constructor<? extends Parser> parserConstructor = parserClass.getConstructor(TokenStream.class);
+        Parser parser = parserConstructor.newInstance(tokens);
+        parser.removeErrorListeners();
+        parser.addErrorListener(errorListener);
+        DFACacheManager.getInstance().register(parser);
+
+        GrammarConfiguration configuration = new GrammarConfiguration();
+        configuration.lexer = lexer;
+        configuration.parser = parser;
+        configuration.errorListener = errorListener;
+        return configuration;
+    }
+
+    /**
+     * Names graphing worker threads
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "graph-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * File visit by graphing worker
+     */
+    private static class Visit {
+
+        /**
+         * Worker that processes file
+         */
+        final Thread worker = Thread.currentThread();
+
+        /**
+         * Released when file is processed
+         */
+        final CountDownLatch done = new CountDownLatch(1);
+    }
+
+    /**
+     * Holder for parser and lexer objects
+     */
+    protected static class GrammarConfiguration {
+        public Lexer lexer;
+        public Parser parser;
+        public ANTLRErrorListener errorListener;
+    }
+}
@@ -0,0 +1,130 @@
+package com.sourcegraph.toolchain.language;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Char stream that reads UTF-8 source file. Large files are memory-mapped and decoded directly into stream's
+ * buffer, so file content is copied only once (unlike ANTLRFileStream which reads file through a Reader into a
+ * growing buffer). UTF-8 BOM is skipped, malformed input is replaced rather than reported.
+ * Exposes token text as slices of underlying buffer
+ */
+public class MappedFileStream extends ANTLRInputStream {
+
+    /**
+     * Files smaller than this are read into heap, memory mapping does not pay off for them
+     */
+    private static final int MAP_THRESHOLD = 64 * 1024;
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /**
+     * @param file file to read
+     * @throws IOException
+     */
+    public MappedFileStream(File file) throws IOException {
+        this.name = file.getPath();
+        ByteBuffer bytes = read(file);
+        skipBOM(bytes);
+        // UTF-8 never produces more chars than there are bytes
+        CharBuffer chars = CharBuffer.allocate(bytes.remaining());
+        decode(bytes, chars);
+        this.n = chars.position();
+        char[] buffer = chars.array();
+        // multi-byte sequences leave unused tail, trimming it if it's significant
+        if (buffer.length - n > n / 4) {
+            buffer = Arrays.copyOf(buffer, n);
+        }
+        this.data = buffer;
+    }
+
+    /**
+     * @param start start index (inclusive)
+     * @param stop stop index (inclusive)
+     * @return text between given indexes, backed by stream buffer
+     */
+    public CharSequence slice(int start, int stop) {
+        if (stop >= n) {
+            stop = n - 1;
+        }
+        if (start >= n || stop < start) {
+            return "";
+        }
+        return CharBuffer.wrap(data, start, stop - start + 1);
+    }
+
+    /**
+     * @param interval text interval
+     * @return text in a given interval, backed by stream buffer
+     */
+    public CharSequence slice(Interval interval) {
+        return slice(interval.a, interval.b);
+    }
+
+    /**
+     * @param file file to read
+     * @return file content
+     * @throws IOException
+     */
+    private static ByteBuffer read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + file + " is too large");
+            }
+            if (size < MAP_THRESHOLD) {
+                return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Advances buffer position past UTF-8 BOM if buffer starts with it
+     * @param bytes buffer to check
+     */
+    private static void skipBOM(ByteBuffer bytes) {
+        if (bytes.remaining() < UTF8_BOM.length) {
+            return;
+        }
+        for (int i = 0; i < UTF8_BOM.length; i++) {
+            if (bytes.get(bytes.position() + i) != UTF8_BOM[i]) {
+                return;
+            }
+        }
+        bytes.position(bytes.position() + UTF8_BOM.length);
+    }
+
+    /**
+     * Decodes UTF-8 bytes into a given char buffer
+     * @param bytes source
+     * @param chars destination, expected to be large enough
+     * @throws IOException
+     */
+    private static void decode(ByteBuffer bytes, CharBuffer chars) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().
+                onMalformedInput(CodingErrorAction.REPLACE).
+                onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CoderResult result = decoder.decode(bytes, chars, true);
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+        result = decoder.flush(chars);
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+    }
+}
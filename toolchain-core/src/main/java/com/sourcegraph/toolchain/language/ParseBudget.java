@@ -0,0 +1,83 @@
+package com.sourcegraph.toolchain.language;
+
+/**
+ * Limits resources single file may take to parse. Files that exceed any of limits are skipped, so that single
+ * pathological file (huge array literal, minified blob) does not stall graphing of whole source unit.
+ * Zero value of any limit means there is no such limit
+ */
+public class ParseBudget {
+
+    /**
+     * Budget without limits
+     */
+    public static final ParseBudget UNLIMITED = new ParseBudget(0, 0, 0, 0, false);
+
+    private final long maxMillis;
+
+    private final int maxTokens;
+
+    private final long maxBytes;
+
+    private final int maxErrors;
+
+    private final boolean keepPartialResults;
+
+    /**
+     * @param maxMillis maximum wall-clock time (in milliseconds) to lex and parse single file
+     * @param maxTokens maximum number of tokens single file may have
+     * @param maxBytes maximum size of file (in bytes)
+     * @param maxErrors maximum number of syntax errors single file may have
+     * @param keepPartialResults when file has too many syntax errors, keep definitions and references found
+     * in part of file parsed so far (true) or skip file (false)
+     */
+    public ParseBudget(long maxMillis, int maxTokens, long maxBytes, int maxErrors, boolean keepPartialResults) {
+        this.maxMillis = maxMillis;
+        this.maxTokens = maxTokens;
+        this.maxBytes = maxBytes;
+        this.maxErrors = maxErrors;
+        this.keepPartialResults = keepPartialResults;
+    }
+
+    /**
+     * @return maximum wall-clock time (in milliseconds) to lex and parse single file
+     */
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * @return maximum number of tokens single file may have
+     */
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * @return maximum size of file (in bytes)
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return maximum number of syntax errors single file may have
+     */
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     * @return true if definitions and references found in part of file parsed before file exceeded maximum number
+     * of syntax errors should be kept
+     */
+    public boolean isKeepingPartialResults() {
+        return keepPartialResults;
+    }
+
+    /**
+     * @return true if budget limits lexing and parsing (time or number of tokens)
+     */
+    boolean isParseLimited() {
+        return maxMillis > 0 || maxTokens > 0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sourcegraph.toolchain.language;
+
+/**
+ * Interrupts lexing and parsing of a file that went over its {@link ParseBudget}. Unchecked, so that it passes
+ * through ANTLR-generated parser rules and error recovery
+ */
+public class ParseBudgetExceededException extends RuntimeException {
+
+    public ParseBudgetExceededException(String message) {
+        super(message);
+    }
+}
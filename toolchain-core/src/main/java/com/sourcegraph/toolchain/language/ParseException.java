@@ -1,19 +1,19 @@
-package com.sourcegraph.toolchain.language;
-
-/**
- * Exception that may be thrown in the case of problems while parsing source code file
- */
-public class ParseException extends Exception {
-
-    public ParseException(String message) {
-        super(message);
-    }
-
-    public ParseException(String message, Throwable cause) {
-        super(message, cause);
-    }
-
-    public ParseException(Throwable cause) {
-        super(cause);
-    }
-}
+package com.sourcegraph.toolchain.language;
+
+/**
+ * Exception that may be thrown in the case of problems while parsing source code file
+ */
+public class ParseException extends Exception {
+
+    public ParseException(String message) {
+        super(message);
+    }
+
+    public ParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ParseException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,61 @@
+package com.sourcegraph.toolchain.language;
+
+/**
+ * Tracks resources spent on lexing and parsing single file and interrupts it by throwing
+ * {@link ParseBudgetExceededException} once file goes over budget. Lexer and parser are checked cooperatively
+ * through the token stream: each token produced by lexer and each token consumed by parser (including lookahead
+ * of ANTLR prediction) is reported to watchdog. Not thread-safe, each file being parsed has its own watchdog
+ */
+class ParseWatchdog {
+
+    /**
+     * Clock is checked once per this many consumed tokens (must be a power of two)
+     */
+    private static final int CHECK_INTERVAL = 1 << 10;
+
+    private final ParseBudget budget;
+
+    private final long deadline;
+
+    private int tokens;
+
+    private int ticks;
+
+    /**
+     * @param budget budget of file, starts counting wall-clock time
+     */
+    ParseWatchdog(ParseBudget budget) {
+        this.budget = budget;
+        this.deadline = budget.getMaxMillis() > 0 ?
+                System.nanoTime() + budget.getMaxMillis() * 1000000L :
+                Long.MAX_VALUE;
+    }
+
+    /**
+     * Called when lexer produced a token
+     * @throws ParseBudgetExceededException if file has more tokens than allowed or parsing takes too long
+     */
+    void token() {
+        tokens++;
+        if (budget.getMaxTokens() > 0 && tokens > budget.getMaxTokens()) {
+            throw new ParseBudgetExceededException("more than " + budget.getMaxTokens() + " tokens");
+        }
+        tick();
+    }
+
+    /**
+     * Called when parser consumed a token
+     * @throws ParseBudgetExceededException if parsing takes too long or thread was interrupted
+     */
+    void tick() {
+        if ((++ticks & (CHECK_INTERVAL - 1)) != 0) {
+            return;
+        }
+        if (System.nanoTime() > deadline) {
+            throw new ParseBudgetExceededException("parsing took more than " + budget.getMaxMillis() + " ms");
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ParseBudgetExceededException("parsing was interrupted");
+        }
+    }
+}
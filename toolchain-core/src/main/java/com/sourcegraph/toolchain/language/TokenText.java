@@ -0,0 +1,132 @@
+package com.sourcegraph.toolchain.language;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Token text utilities. Produces the same text as ParseTree.getText() (concatenated text of all tokens of subtree,
+ * hidden tokens are not included), but without building intermediate string for each node of subtree. When tokens
+ * of subtree are adjacent in source file, text is a slice of {@link MappedFileStream} buffer and no characters are
+ * copied until text is converted to string
+ */
+public class TokenText {
+
+    /**
+     * @param token token
+     * @return token text, backed by stream buffer if possible
+     */
+    public static CharSequence of(Token token) {
+        MappedFileStream stream = getStream(token);
+        if (stream == null) {
+            return token.getText();
+        }
+        return stream.slice(token.getStartIndex(), token.getStopIndex());
+    }
+
+    /**
+     * @param tree parse tree node
+     * @return text of all tokens of a given subtree, backed by stream buffer if possible
+     */
+    public static CharSequence of(ParseTree tree) {
+        if (tree instanceof TerminalNode) {
+            return of(((TerminalNode) tree).getSymbol());
+        }
+        Token first = null;
+        Token last = null;
+        boolean adjacent = true;
+        Deque<ParseTree> stack = new ArrayDeque<>();
+        stack.push(tree);
+        while (!stack.isEmpty() && adjacent) {
+            ParseTree node = stack.pop();
+            if (node instanceof TerminalNode) {
+                Token token = ((TerminalNode) node).getSymbol();
+                // tokens conjured by error recovery have text of their own
+                adjacent = getStream(token) != null &&
+                        (first == null ||
+                                (getStream(token) == getStream(first) &&
+                                        token.getStartIndex() == last.getStopIndex() + 1));
+                if (first == null) {
+                    first = token;
+                }
+                last = token;
+                continue;
+            }
+            for (int i = node.getChildCount() - 1; i >= 0; i--) {
+                stack.push(node.getChild(i));
+            }
+        }
+        if (first == null) {
+            return "";
+        }
+        if (adjacent) {
+            return getStream(first).slice(first.getStartIndex(), last.getStopIndex());
+        }
+        StringBuilder text = new StringBuilder();
+        append(tree, text);
+        return text;
+    }
+
+    /**
+     * @param tree parse tree node
+     * @return text of all tokens of a given subtree as string, same as tree.getText()
+     */
+    public static String toString(ParseTree tree) {
+        return of(tree).toString();
+    }
+
+    /**
+     * @param tree parse tree node
+     * @param text text to compare with
+     * @return true if text of all tokens of a given subtree is equal to a given one
+     */
+    public static boolean equals(ParseTree tree, String text) {
+        return text.contentEquals(of(tree));
+    }
+
+    /**
+     * @param token token
+     * @param text text to compare with
+     * @return true if token text is equal to a given one
+     */
+    public static boolean equals(Token token, String text) {
+        return text.contentEquals(of(token));
+    }
+
+    /**
+     * Appends text of all tokens of a given subtree
+     * @param tree parse tree node
+     * @param text destination
+     */
+    private static void append(ParseTree tree, StringBuilder text) {
+        if (tree instanceof TerminalNode) {
+            text.append(of(((TerminalNode) tree).getSymbol()));
+            return;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            append(tree.getChild(i), text);
+        }
+    }
+
+    /**
+     * @param token token
+     * @return mapped file stream token text may be sliced from or null if token has no such stream
+     * (for example, EOF or tokens conjured by error recovery)
+     */
+    private static MappedFileStream getStream(Token token) {
+        if (token.getType() == Token.EOF || token.getTokenIndex() < 0) {
+            return null;
+        }
+        CharStream stream = token.getInputStream();
+        if (!(stream instanceof MappedFileStream) ||
+                token.getStartIndex() < 0 ||
+                token.getStopIndex() >= stream.size()) {
+            return null;
+        }
+        return (MappedFileStream) stream;
+    }
+}
@@ -0,0 +1,46 @@
+package com.sourcegraph.toolchain.language;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.TokenSource;
+
+/**
+ * Token stream that reports tokens fetched from lexer and consumed by parser to {@link ParseWatchdog},
+ * if there is one
+ */
+class WatchedTokenStream extends CommonTokenStream {
+
+    private ParseWatchdog watchdog;
+
+    /**
+     * @param tokenSource lexer
+     */
+    WatchedTokenStream(TokenSource tokenSource) {
+        super(tokenSource);
+    }
+
+    /**
+     * @param watchdog watchdog to report tokens to, null to stop reporting
+     */
+    void setWatchdog(ParseWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    @Override
+    protected int fetch(int n) {
+        int fetched = super.fetch(n);
+        if (watchdog != null) {
+            for (int i = 0; i < fetched; i++) {
+                watchdog.token();
+            }
+        }
+        return fetched;
+    }
+
+    @Override
+    public void consume() {
+        super.consume();
+        if (watchdog != null) {
+            watchdog.tick();
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.sourcegraph.toolchain.js;
 
 import org.antlr.v4.runtime.Token;
-import org.apache.commons.lang3.StringUtils;
 
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by iisaev on 17.12.15.
@@ -37,9 +37,9 @@ public class Context {
     private Prototype proto;
 
     /**
-     * counter for creating unique names for anonymous scopes
+     * counter for creating unique names for anonymous scopes, shared by contexts of all graphing workers
      */
-    private int anonc;
+    private AtomicInteger anonc;
 
     /**
      * holds the parser generated token for
@@ -68,9 +68,7 @@ public class Context {
      * @return new unique name for anonymous scope
      */
     public String makeAnonScope(String base) {
-        String res =  base + "@" + anonc+ "@";
-        anonc++;
-        return res;
+        return base + "@" + anonc.getAndIncrement() + "@";
     }
 
     /**
@@ -103,9 +101,14 @@ public class Context {
         return curProtoDecl;
     }
 
-    public Context() {
+    /**
+     * @param global global scope, shared by contexts of all graphing workers
+     * @param anonc counter for creating unique names for anonymous scopes
+     */
+    public Context(Scope global, AtomicInteger anonc) {
         scopes = new Stack<Scope>();
-        pushScope(StringUtils.EMPTY); //global scope
+        scopes.push(global);
+        this.anonc = anonc;
     }
 
     /**
@@ -1,55 +1,101 @@
-package com.sourcegraph.toolchain.js;
-
-import com.sourcegraph.toolchain.core.GraphWriter;
-import com.sourcegraph.toolchain.core.objects.DefKey;
-import com.sourcegraph.toolchain.js.antlr4.JavaScriptLexer;
-import com.sourcegraph.toolchain.js.antlr4.JavaScriptParser;
-import com.sourcegraph.toolchain.language.*;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.File;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
-public class LanguageImpl extends LanguageBase {
-
-    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageImpl.class);
-    private Set<String> visited = new HashSet<>();
-    private Set<String> files;
-
-    @Override
-    protected void parse(File sourceFile) throws ParseException {
-        try {
-            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
-                    JavaScriptLexer.class,
-                    JavaScriptParser.class,
-                    new DefaultErrorListener(sourceFile));
-            ParseTree tree = ((JavaScriptParser) configuration.parser).program();
-            ParseTreeWalker walker = new ParseTreeWalker();
-            walker.walk(new JavaScriptParseTreeListener(this), tree);
-        } catch (Exception e) {
-            throw new ParseException(e);
-        }
-
-    }
-
-    @Override
-    protected FileCollector getFileCollector(File rootDir, String repoUri) {
-        return new ExtensionBasedFileCollector().extension(".js", ".jsx");
-    }
-
-    @Override
-    public String getName() {
-        return "js";
-    }
-
-    @Override
-    public DefKey resolve(DefKey source) {
-        return null;
-    }
+package com.sourcegraph.toolchain.js;
+
+import com.sourcegraph.toolchain.core.GraphCache;
+import com.sourcegraph.toolchain.core.GraphWriter;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.js.antlr4.JavaScriptLexer;
+import com.sourcegraph.toolchain.js.antlr4.JavaScriptParser;
+import com.sourcegraph.toolchain.language.*;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LanguageImpl extends LanguageBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageImpl.class);
+    private Set<String> visited = new HashSet<>();
+    private Set<String> files;
+
+    /**
+     * Global scope, shared by all graphing workers
+     */
+    private final Scope globals = new Scope(StringUtils.EMPTY);
+
+    private final AtomicInteger anonymousScopes = new AtomicInteger();
+
+    /**
+     * Semantic context of each graphing worker, global scope is shared between all files
+     */
+    final ThreadLocal<Context> contexts = ThreadLocal.withInitial(() -> new Context(globals, anonymousScopes));
+
+    /**
+     * Semantic context is not kept in graph cache, files replayed from cache would contribute nothing to it.
+     * Graph cache is not used
+     */
+    @Override
+    public void setGraphCache(GraphCache cache) {
+        if (cache != null) {
+            LOGGER.warn("Graph cache is not supported by {} language support, all files will be parsed", getName());
+        }
+        super.setGraphCache(null);
+    }
+
+    @Override
+    protected void parse(File sourceFile) throws ParseException {
+        try {
+            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
+                    JavaScriptLexer.class,
+                    JavaScriptParser.class,
+                    new DefaultErrorListener(sourceFile));
+            ParseTree tree = parseRule(configuration, parser -> ((JavaScriptParser) parser).program());
+            walk(new JavaScriptParseTreeListener(this), tree);
+        } catch (Exception e) {
+            throw new ParseException(e);
+        }
+
+    }
+
+    @Override
+    protected void parseWithoutEmitting(File sourceFile) throws ParseException {
+        try {
+            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
+                    JavaScriptLexer.class,
+                    JavaScriptParser.class,
+                    new BaseErrorListener());
+            parseRule(configuration, parser -> ((JavaScriptParser) parser).program());
+        } catch (Exception e) {
+            throw new ParseException(e);
+        }
+    }
+
+    @Override
+    public FileCollector getFileCollector(File rootDir, String repoUri) {
+        return new ExtensionBasedFileCollector().extension(".js", ".jsx");
+    }
+
+    @Override
+    public String getName() {
+        return "js";
+    }
+
+    @Override
+    public DefKey resolve(DefKey source) {
+        return null;
+    }
+
+    @Override
+    public Map<DefKey, DefKey> resolveAll(Collection<DefKey> sources) {
+        return Collections.emptyMap();
+    }
 }
\ No newline at end of file
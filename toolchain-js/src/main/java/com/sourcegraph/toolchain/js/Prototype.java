@@ -1,6 +1,7 @@
 package com.sourcegraph.toolchain.js;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Created by iisaev on 18.12.15.
@@ -10,7 +11,7 @@ public class Prototype extends SemaElement {
     /**
      * elements of the prototype
      */
-    private HashMap<String, SemaElement> fields;
+    private Map<String, SemaElement> fields;
 
     /**
      * add element to this prototype
@@ -30,7 +31,8 @@ public class Prototype extends SemaElement {
 
     public Prototype(String name) {
         super(name);
-        fields = new HashMap<>();
+        // prototypes of global scope may be extended by any graphing worker
+        fields = new ConcurrentHashMap<>();
         fields.put("prototype", this);
     }
 
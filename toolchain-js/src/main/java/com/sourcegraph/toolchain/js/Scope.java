@@ -1,20 +1,22 @@
 package com.sourcegraph.toolchain.js;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Created by iisaev on 17.12.15.
  */
 public class Scope {
 
-    private HashMap<String, SemaElement> idents;
+    private Map<String, SemaElement> idents;
     private String name;
 
     /**
      * @param name hierarchical name of the current scope
      */
     public Scope(String name) {
-        idents = new HashMap<String, SemaElement>();
+        // global scope is shared by graphing workers
+        idents = new ConcurrentHashMap<String, SemaElement>();
         this.name = name;
     }
 
@@ -1,66 +1,176 @@
-package com.sourcegraph.toolchain.objc;
-
-import com.sourcegraph.toolchain.core.GraphWriter;
-import com.sourcegraph.toolchain.core.objects.DefKey;
-import com.sourcegraph.toolchain.language.*;
-import com.sourcegraph.toolchain.objc.antlr4.ObjCLexer;
-import com.sourcegraph.toolchain.objc.antlr4.ObjCParser;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.File;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
-public class LanguageImpl extends LanguageBase {
-
-    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageImpl.class);
-
-    GraphWriter writer;
-
-    Map<String, String> globalVars = new HashMap<>();
-    // class name -> (variable -> type)
-    Map<String, Map<String, String>> instanceVars = new HashMap<>();
-
-    Set<String> functions = new HashSet<>();
-    Set<String> types = new HashSet<>();
-
-    private Set<String> visited = new HashSet<>();
-    private Set<String> files;
-
-    @Override
-    protected void parse(File sourceFile) throws ParseException {
-        try {
-            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
-                    ObjCLexer.class,
-                    ObjCParser.class,
-                    new DefaultErrorListener(sourceFile));
-            ParseTree tree = ((ObjCParser) configuration.parser).translation_unit();
-            ParseTreeWalker walker = new ParseTreeWalker();
-            walker.walk(new ObjCParseTreeListener(this), tree);
-        } catch (Exception e) {
-            throw new ParseException(e);
-        }
-
-    }
-
-    @Override
-    protected FileCollector getFileCollector(File rootDir, String repoUri) {
-        return new ExtensionBasedFileCollector().extension(".h", ".m", ".mm");
-    }
-
-    @Override
-    public String getName() {
-        return "objc";
-    }
-
-    @Override
-    public DefKey resolve(DefKey source) {
-        // TODO (alexsaveliev)
-        return null;
-    }
+package com.sourcegraph.toolchain.objc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.sourcegraph.toolchain.core.GraphWriter;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.language.*;
+import com.sourcegraph.toolchain.objc.antlr4.ObjCLexer;
+import com.sourcegraph.toolchain.objc.antlr4.ObjCParser;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LanguageImpl extends LanguageBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageImpl.class);
+
+    GraphWriter writer;
+
+    // symbol tables are shared between graphing workers
+    Map<String, String> globalVars = Collections.synchronizedMap(new HashMap<>());
+    // class name -> (variable -> type)
+    Map<String, Map<String, String>> instanceVars = Collections.synchronizedMap(new HashMap<>());
+
+    Set<String> functions = Collections.synchronizedSet(new HashSet<>());
+    Set<String> types = Collections.synchronizedSet(new HashSet<>());
+
+    private Set<String> visited = new HashSet<>();
+    private Set<String> files;
+
+    /**
+     * Symbols contributed by files being processed (file => symbols), maintained only when graph cache is used
+     */
+    private Map<String, Symbols> fileSymbols = new ConcurrentHashMap<>();
+
+    /**
+     * @param className class name
+     * @return instance variables (variable -> type) of a given class, registering an empty set if there are none yet
+     */
+    Map<String, String> getInstanceVars(String className) {
+        return instanceVars.computeIfAbsent(className, k -> Collections.synchronizedMap(new HashMap<>()));
+    }
+
+    /**
+     * Registers variable
+     * @param className class name for instance variables or null for global ones
+     * @param name variable name
+     * @param type variable type
+     */
+    void addVar(String className, String name, String type) {
+        if (className == null) {
+            globalVars.put(name, type);
+        } else {
+            getInstanceVars(className).put(name, type);
+        }
+        if (isCollectingSymbols()) {
+            Symbols symbols = getCurrentSymbols();
+            if (className == null) {
+                symbols.globalVars.put(name, type);
+            } else {
+                symbols.instanceVars.computeIfAbsent(className, k -> new HashMap<>()).put(name, type);
+            }
+        }
+    }
+
+    /**
+     * Registers function or method
+     * @param name function name or method key
+     */
+    void addFunction(String name) {
+        functions.add(name);
+        if (isCollectingSymbols()) {
+            getCurrentSymbols().functions.add(name);
+        }
+    }
+
+    /**
+     * Registers type
+     * @param name type name
+     */
+    void addType(String name) {
+        types.add(name);
+        if (isCollectingSymbols()) {
+            getCurrentSymbols().types.add(name);
+        }
+    }
+
+    @Override
+    protected Object getSymbols(String file) {
+        return fileSymbols.remove(file);
+    }
+
+    @Override
+    protected void restoreSymbols(String file, JsonElement element) {
+        Symbols symbols = new Gson().fromJson(element, Symbols.class);
+        globalVars.putAll(symbols.globalVars);
+        for (Map.Entry<String, Map<String, String>> entry : symbols.instanceVars.entrySet()) {
+            getInstanceVars(entry.getKey()).putAll(entry.getValue());
+        }
+        functions.addAll(symbols.functions);
+        types.addAll(symbols.types);
+    }
+
+    /**
+     * @return symbols contributed by file being processed
+     */
+    private Symbols getCurrentSymbols() {
+        return fileSymbols.computeIfAbsent(getCurrentFile(), file -> new Symbols());
+    }
+
+    @Override
+    protected void parse(File sourceFile) throws ParseException {
+        try {
+            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
+                    ObjCLexer.class,
+                    ObjCParser.class,
+                    new DefaultErrorListener(sourceFile));
+            ParseTree tree = parseRule(configuration, parser -> ((ObjCParser) parser).translation_unit());
+            walk(new ObjCParseTreeListener(this), tree);
+        } catch (Exception e) {
+            throw new ParseException(e);
+        }
+
+    }
+
+    @Override
+    protected void parseWithoutEmitting(File sourceFile) throws ParseException {
+        try {
+            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
+                    ObjCLexer.class,
+                    ObjCParser.class,
+                    new BaseErrorListener());
+            parseRule(configuration, parser -> ((ObjCParser) parser).translation_unit());
+        } catch (Exception e) {
+            throw new ParseException(e);
+        }
+    }
+
+    @Override
+    public FileCollector getFileCollector(File rootDir, String repoUri) {
+        return new ExtensionBasedFileCollector().extension(".h", ".m", ".mm");
+    }
+
+    @Override
+    public String getName() {
+        return "objc";
+    }
+
+    @Override
+    public DefKey resolve(DefKey source) {
+        // TODO (alexsaveliev)
+        return null;
+    }
+
+    @Override
+    public Map<DefKey, DefKey> resolveAll(Collection<DefKey> sources) {
+        // nothing resolves yet, see resolve()
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Symbols contributed by a single file, kept in graph cache
+     */
+    private static class Symbols {
+        Map<String, String> globalVars = new HashMap<>();
+        // class name -> (variable -> type)
+        Map<String, Map<String, String>> instanceVars = new HashMap<>();
+        Collection<String> functions = new ArrayList<>();
+        Collection<String> types = new ArrayList<>();
+    }
 }
\ No newline at end of file
@@ -1,19 +1,19 @@
-package com.sourcegraph.toolchain.php;
-
-import java.util.Collection;
-import java.util.HashSet;
-
-class ClassInfo {
-
-    String className;
-
-    Collection<String> extendsClasses = new HashSet<>();
-    Collection<String> implementsInterfaces = new HashSet<>();
-    Collection<String> usesTraits = new HashSet<>();
-
-    Collection<String> definesMethods = new HashSet<>();
-    Collection<String> implementsMethods = new HashSet<>();
-
-    Collection<String> constants = new HashSet<>();
-    Collection<String> properties = new HashSet<>();
+package com.sourcegraph.toolchain.php;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ClassInfo {
+
+    String className;
+
+    Collection<String> extendsClasses = ConcurrentHashMap.newKeySet();
+    Collection<String> implementsInterfaces = ConcurrentHashMap.newKeySet();
+    Collection<String> usesTraits = ConcurrentHashMap.newKeySet();
+
+    Collection<String> definesMethods = ConcurrentHashMap.newKeySet();
+    Collection<String> implementsMethods = ConcurrentHashMap.newKeySet();
+
+    Collection<String> constants = ConcurrentHashMap.newKeySet();
+    Collection<String> properties = ConcurrentHashMap.newKeySet();
 }
\ No newline at end of file
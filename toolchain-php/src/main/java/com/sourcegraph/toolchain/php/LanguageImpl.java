@@ -1,259 +1,437 @@
-package com.sourcegraph.toolchain.php;
-
-import com.sourcegraph.toolchain.core.PathUtil;
-import com.sourcegraph.toolchain.core.objects.Def;
-import com.sourcegraph.toolchain.core.objects.DefKey;
-import com.sourcegraph.toolchain.language.*;
-import com.sourcegraph.toolchain.php.antlr4.PHPLexer;
-import com.sourcegraph.toolchain.php.antlr4.PHPParser;
-import com.sourcegraph.toolchain.php.composer.ComposerConfiguration;
-import com.sourcegraph.toolchain.php.composer.schema.Autoload;
-import com.sourcegraph.toolchain.php.composer.schema.ComposerSchemaJson;
-import com.sourcegraph.toolchain.php.resolver.CompoundClassFileResolver;
-import com.sourcegraph.toolchain.php.resolver.PSR0ClassFileResolver;
-import com.sourcegraph.toolchain.php.resolver.PSR4ClassFileResolver;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.*;
-
-public class LanguageImpl extends LanguageBase {
-
-    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageImpl.class);
-
-    /**
-     * keeps global and function-level variables.
-     */
-    Stack<Map<String, VarInfo>> vars = new Stack<>();
-
-    Map<String, ClassInfo> classes = new HashMap<>();
-    Set<String> functions = new HashSet<>();
-
-    private Set<String> seenClasses = new HashSet<>();
-
-    /**
-     * Map ident => definition. We using it to resolve reference candidates.
-     */
-    Map<String, Def> resolutions = new HashMap<>();
-
-    private CompoundClassFileResolver classFileResolver;
-
-    /**
-     * @param rootClassName starting class
-     * @param methodName method name we searching for
-     * @return class name that defines given method or null
-     */
-    public String getDefiningClass(String rootClassName, String methodName) {
-        ClassInfo info = classes.get(rootClassName);
-        if (info == null) {
-            return null;
-        }
-        if (info.definesMethods.contains(methodName)) {
-            return rootClassName;
-        }
-        for (String interfaceName : info.implementsInterfaces) {
-            String definingClass = getDefiningClass(interfaceName, methodName);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-
-        for (String className : info.extendsClasses) {
-            String definingClass = getDefiningClass(className, methodName);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-
-        for (String traitName : info.usesTraits) {
-            String definingClass = getDefiningClass(traitName, methodName);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * @param rootClassName starting class
-     * @param constant constant name
-     * @return class name that defines given constant or null
-     */
-    public String getConstantClass(String rootClassName, String constant) {
-        ClassInfo info = classes.get(rootClassName);
-        if (info == null) {
-            return null;
-        }
-        if (info.constants.contains(constant)) {
-            return rootClassName;
-        }
-        for (String interfaceName : info.implementsInterfaces) {
-            String definingClass = getConstantClass(interfaceName, constant);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-
-        for (String className : info.extendsClasses) {
-            String definingClass = getConstantClass(className, constant);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-
-        for (String traitName : info.usesTraits) {
-            String definingClass = getConstantClass(traitName, constant);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * @param rootClassName starting class
-     * @param property property name
-     * @return class name that defines given property or null
-     */
-    public String getPropertyClass(String rootClassName, String property) {
-        ClassInfo info = classes.get(rootClassName);
-        if (info == null) {
-            return null;
-        }
-        if (info.properties.contains(property)) {
-            return rootClassName;
-        }
-        for (String interfaceName : info.implementsInterfaces) {
-            String definingClass = getPropertyClass(interfaceName, property);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-
-        for (String className : info.extendsClasses) {
-            String definingClass = getPropertyClass(className, property);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-
-        for (String traitName : info.usesTraits) {
-            String definingClass = getPropertyClass(traitName, property);
-            if (definingClass != null) {
-                return definingClass;
-            }
-        }
-        return null;
-    }
-
-    @Override
-    public String getName() {
-        return "php";
-    }
-
-    @Override
-    public DefKey resolve(DefKey source) {
-        Def def = resolutions.get(source.getPath());
-        if (def != null) {
-            return def.defKey;
-        }
-        return null;
-    }
-
-    @Override
-    public void graph() {
-        // Before graphing, let's load composer configuration if there is any
-        this.classFileResolver = new CompoundClassFileResolver();
-
-        File composerJson = new File(PathUtil.CWD.toFile(), "composer.json");
-        if (composerJson.isFile()) {
-            try {
-                ComposerSchemaJson configuration = ComposerConfiguration.getConfiguration(composerJson);
-                initAutoLoader(configuration);
-            } catch (IOException e) {
-                LOGGER.warn("Failed to read composer configuration {}", e.getMessage());
-            }
-        }
-        super.graph();
-    }
-
-    @Override
-    protected void parse(File sourceFile) throws ParseException {
-        try {
-            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
-                    PHPLexer.class,
-                    PHPParser.class,
-                    new DefaultErrorListener(sourceFile));
-            ParseTree tree = ((PHPParser) configuration.parser).htmlDocument();
-            ParseTreeWalker walker = new ParseTreeWalker();
-            walker.walk(new PHPParseTreeListener(this), tree);
-        } catch (Exception e) {
-            throw new ParseException(e);
-        }
-    }
-
-    @Override
-    protected FileCollector getFileCollector(File rootDir, String repoUri) {
-        ExtensionBasedFileCollector collector = new ExtensionBasedFileCollector().extension(".php");
-        File composerJson = new File(rootDir, "composer.json");
-        if (composerJson.isFile()) {
-            collector.exclude("vendor");
-        }
-        return collector;
-    }
-
-    /**
-     * Invoked by PHP parse tree listener to "touch" class.
-     * PHP language support tries to resolve class file using registered class resolver(s)
-     * and if file is found, we are trying to parse it before processing current class
-     * @param fullyQualifiedClassName FQCN
-     */
-    protected void resolveClass(String fullyQualifiedClassName) {
-        if (!seenClasses.add(fullyQualifiedClassName)) {
-            return;
-        }
-        File file = classFileResolver.resolve(fullyQualifiedClassName);
-        if (file != null) {
-            process(file);
-        }
-    }
-
-    /**
-     * Initializes autoloader (currently PSR-4 and PSR-0 are supported)
-     * @param composerSchemaJson configuration from composer.json
-     */
-    private void initAutoLoader(ComposerSchemaJson composerSchemaJson) {
-        Autoload autoload = composerSchemaJson.getAutoload();
-        if (autoload == null) {
-            return;
-        }
-
-        Map<String, List<String>> psr4 = autoload.getPsr4();
-        if (psr4 != null) {
-            PSR4ClassFileResolver psr4ClassFileResolver = new PSR4ClassFileResolver();
-            for (Map.Entry<String, List<String>> entry : psr4.entrySet()) {
-                for (String directory : entry.getValue()) {
-                    psr4ClassFileResolver.addNamespace(entry.getKey(), directory);
-                }
-            }
-            classFileResolver.addResolver(psr4ClassFileResolver);
-        }
-
-        Map<String, List<String>> psr0 = autoload.getPsr0();
-        if (psr0 != null) {
-            PSR0ClassFileResolver psr0ClassFileResolver = new PSR0ClassFileResolver();
-            for (Map.Entry<String, List<String>> entry : psr0.entrySet()) {
-                for (String directory : entry.getValue()) {
-                    psr0ClassFileResolver.addNamespace(entry.getKey(), directory);
-                }
-            }
-            classFileResolver.addResolver(psr0ClassFileResolver);
-        }
-        // TODO: classmap?
-
-    }
+package com.sourcegraph.toolchain.php;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.sourcegraph.toolchain.core.PathUtil;
+import com.sourcegraph.toolchain.core.objects.DefKey;
+import com.sourcegraph.toolchain.language.*;
+import com.sourcegraph.toolchain.php.antlr4.PHPLexer;
+import com.sourcegraph.toolchain.php.antlr4.PHPParser;
+import com.sourcegraph.toolchain.php.composer.ComposerConfiguration;
+import com.sourcegraph.toolchain.php.composer.schema.Autoload;
+import com.sourcegraph.toolchain.php.composer.schema.ComposerSchemaJson;
+import com.sourcegraph.toolchain.php.resolver.CompoundClassFileResolver;
+import com.sourcegraph.toolchain.php.resolver.PSR0ClassFileResolver;
+import com.sourcegraph.toolchain.php.resolver.PSR4ClassFileResolver;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LanguageImpl extends LanguageBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageImpl.class);
+
+    /**
+     * Marks classes which files are unknown
+     */
+    private static final File NO_FILE = new File(StringUtils.EMPTY);
+
+    /**
+     * keeps file-level and function-level variables. Each graphing worker thread has its own stack
+     */
+    ThreadLocal<Stack<Map<String, VarInfo>>> vars = ThreadLocal.withInitial(Stack::new);
+
+    /**
+     * Global variables defined by graphed files, shared by all graphing workers
+     */
+    Map<String, VarInfo> globals = new ConcurrentHashMap<>();
+
+    Map<String, ClassInfo> classes = new ConcurrentHashMap<>();
+    Set<String> functions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Files of classes resolved so far (FQCN => file), {@link #NO_FILE} if class file is unknown
+     */
+    private Map<String, File> classFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Map ident => definition. We using it to resolve reference candidates.
+     * When ident is defined by more than one file, definition made by the first file in path order is kept, so that
+     * candidates resolve the same way regardless of the order files are processed in
+     */
+    private Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * Symbols contributed by files being processed (file => symbols), maintained only when graph cache is used
+     */
+    private Map<String, Symbols> fileSymbols = new ConcurrentHashMap<>();
+
+    private CompoundClassFileResolver classFileResolver;
+
+    /**
+     * @param rootClassName starting class
+     * @param methodName method name we searching for
+     * @return class name that defines given method or null
+     */
+    public String getDefiningClass(String rootClassName, String methodName) {
+        if (rootClassName == null) {
+            return null;
+        }
+        ClassInfo info = classes.get(rootClassName);
+        if (info == null) {
+            return null;
+        }
+        if (info.definesMethods.contains(methodName)) {
+            return rootClassName;
+        }
+        for (String interfaceName : info.implementsInterfaces) {
+            String definingClass = getDefiningClass(interfaceName, methodName);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+
+        for (String className : info.extendsClasses) {
+            String definingClass = getDefiningClass(className, methodName);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+
+        for (String traitName : info.usesTraits) {
+            String definingClass = getDefiningClass(traitName, methodName);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param rootClassName starting class
+     * @param constant constant name
+     * @return class name that defines given constant or null
+     */
+    public String getConstantClass(String rootClassName, String constant) {
+        if (rootClassName == null) {
+            return null;
+        }
+        ClassInfo info = classes.get(rootClassName);
+        if (info == null) {
+            return null;
+        }
+        if (info.constants.contains(constant)) {
+            return rootClassName;
+        }
+        for (String interfaceName : info.implementsInterfaces) {
+            String definingClass = getConstantClass(interfaceName, constant);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+
+        for (String className : info.extendsClasses) {
+            String definingClass = getConstantClass(className, constant);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+
+        for (String traitName : info.usesTraits) {
+            String definingClass = getConstantClass(traitName, constant);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param rootClassName starting class
+     * @param property property name
+     * @return class name that defines given property or null
+     */
+    public String getPropertyClass(String rootClassName, String property) {
+        if (rootClassName == null) {
+            return null;
+        }
+        ClassInfo info = classes.get(rootClassName);
+        if (info == null) {
+            return null;
+        }
+        if (info.properties.contains(property)) {
+            return rootClassName;
+        }
+        for (String interfaceName : info.implementsInterfaces) {
+            String definingClass = getPropertyClass(interfaceName, property);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+
+        for (String className : info.extendsClasses) {
+            String definingClass = getPropertyClass(className, property);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+
+        for (String traitName : info.usesTraits) {
+            String definingClass = getPropertyClass(traitName, property);
+            if (definingClass != null) {
+                return definingClass;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return "php";
+    }
+
+    @Override
+    public DefKey resolve(DefKey source) {
+        Resolution resolution = resolutions.get(source.getPath());
+        return resolution == null ? null : resolution.defKey;
+    }
+
+    /**
+     * Resolution is a single map lookup, cheaper than handing keys over to worker threads
+     */
+    @Override
+    public Map<DefKey, DefKey> resolveAll(Collection<DefKey> sources) {
+        Map<DefKey, DefKey> ret = new HashMap<>();
+        for (DefKey source : sources) {
+            if (!ret.containsKey(source)) {
+                Resolution resolution = resolutions.get(source.getPath());
+                if (resolution != null) {
+                    ret.put(source, resolution.defKey);
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Registers class
+     * @param info class information
+     */
+    void addClass(ClassInfo info) {
+        classes.put(info.className, info);
+        if (isCollectingSymbols()) {
+            getCurrentSymbols().classes.add(info);
+        }
+    }
+
+    /**
+     * Registers function
+     * @param fqn function's fully qualified name
+     */
+    void addFunction(String fqn) {
+        functions.add(fqn);
+        if (isCollectingSymbols()) {
+            getCurrentSymbols().functions.add(fqn);
+        }
+    }
+
+    /**
+     * Registers global variable, the first file that defines variable wins
+     * @param name variable name
+     * @param info variable information, type may be updated later
+     */
+    void addGlobal(String name, VarInfo info) {
+        globals.putIfAbsent(name, info);
+        if (isCollectingSymbols()) {
+            getCurrentSymbols().globals.put(name, info);
+        }
+    }
+
+    /**
+     * Registers definition that may be used to resolve reference candidates
+     * @param ident identifier, for example (?M)foo
+     * @param defKey definition key
+     */
+    void addResolution(String ident, DefKey defKey) {
+        addResolution(ident, new Resolution(getCurrentFile(), defKey));
+        if (isCollectingSymbols()) {
+            getCurrentSymbols().resolutions.putIfAbsent(ident, defKey.getPath());
+        }
+    }
+
+    @Override
+    protected Object getSymbols(String file) {
+        return fileSymbols.remove(file);
+    }
+
+    @Override
+    protected void restoreSymbols(String file, JsonElement element) {
+        Symbols symbols = new Gson().fromJson(element, Symbols.class);
+        for (ClassInfo restored : symbols.classes) {
+            // restored collections are plain lists, copying them to thread-safe sets
+            ClassInfo info = new ClassInfo();
+            info.className = restored.className;
+            info.extendsClasses.addAll(restored.extendsClasses);
+            info.implementsInterfaces.addAll(restored.implementsInterfaces);
+            info.usesTraits.addAll(restored.usesTraits);
+            info.definesMethods.addAll(restored.definesMethods);
+            info.implementsMethods.addAll(restored.implementsMethods);
+            info.constants.addAll(restored.constants);
+            info.properties.addAll(restored.properties);
+            classes.put(info.className, info);
+        }
+        functions.addAll(symbols.functions);
+        for (Map.Entry<String, VarInfo> global : symbols.globals.entrySet()) {
+            globals.putIfAbsent(global.getKey(), new VarInfo(global.getValue().type, false));
+        }
+        for (Map.Entry<String, String> resolution : symbols.resolutions.entrySet()) {
+            addResolution(resolution.getKey(), new Resolution(file, DefKey.of(null, resolution.getValue())));
+        }
+    }
+
+    /**
+     * Registers resolution unless ident is already resolved to definition made by file that goes earlier in path
+     * order (or by the same file)
+     * @param ident identifier
+     * @param resolution resolution to register
+     */
+    private void addResolution(String ident, Resolution resolution) {
+        resolutions.merge(ident, resolution, (current, candidate) ->
+                candidate.file.compareTo(current.file) < 0 ? candidate : current);
+    }
+
+    @Override
+    public void graph() {
+        // Before graphing, let's load composer configuration if there is any
+        this.classFileResolver = new CompoundClassFileResolver();
+
+        File composerJson = new File(PathUtil.CWD.toFile(), "composer.json");
+        if (composerJson.isFile()) {
+            try {
+                ComposerSchemaJson configuration = ComposerConfiguration.getConfiguration(composerJson);
+                initAutoLoader(configuration);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read composer configuration {}", e.getMessage());
+            }
+        }
+        super.graph();
+    }
+
+    @Override
+    protected void parse(File sourceFile) throws ParseException {
+        try {
+            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
+                    PHPLexer.class,
+                    PHPParser.class,
+                    new DefaultErrorListener(sourceFile));
+            ParseTree tree = parseRule(configuration, parser -> ((PHPParser) parser).htmlDocument());
+            walk(new PHPParseTreeListener(this), tree);
+        } catch (Exception e) {
+            throw new ParseException(e);
+        }
+    }
+
+    @Override
+    protected void parseWithoutEmitting(File sourceFile) throws ParseException {
+        try {
+            GrammarConfiguration configuration = LanguageBase.createGrammarConfiguration(sourceFile,
+                    PHPLexer.class,
+                    PHPParser.class,
+                    new BaseErrorListener());
+            parseRule(configuration, parser -> ((PHPParser) parser).htmlDocument());
+        } catch (Exception e) {
+            throw new ParseException(e);
+        }
+    }
+
+    @Override
+    public FileCollector getFileCollector(File rootDir, String repoUri) {
+        ExtensionBasedFileCollector collector = new ExtensionBasedFileCollector().extension(".php");
+        File composerJson = new File(rootDir, "composer.json");
+        if (composerJson.isFile()) {
+            collector.exclude("vendor");
+        }
+        return collector;
+    }
+
+    /**
+     * Invoked by PHP parse tree listener to "touch" class.
+     * PHP language support tries to resolve class file using registered class resolver(s)
+     * and if file is found, we are trying to parse it before processing current class.
+     * Class file is requested every time class is touched, so that file being processed records dependency on it
+     * and waits for it if class file is being processed by another graphing worker
+     * @param fullyQualifiedClassName FQCN
+     */
+    protected void resolveClass(String fullyQualifiedClassName) {
+        File file = classFiles.computeIfAbsent(fullyQualifiedClassName, fqcn -> {
+            File resolved = classFileResolver.resolve(fqcn);
+            return resolved == null ? NO_FILE : resolved;
+        });
+        if (file != NO_FILE) {
+            process(file);
+        }
+    }
+
+    /**
+     * @return symbols contributed by file being processed
+     */
+    private Symbols getCurrentSymbols() {
+        return fileSymbols.computeIfAbsent(getCurrentFile(), file -> new Symbols());
+    }
+
+    /**
+     * Initializes autoloader (currently PSR-4 and PSR-0 are supported)
+     * @param composerSchemaJson configuration from composer.json
+     */
+    private void initAutoLoader(ComposerSchemaJson composerSchemaJson) {
+        Autoload autoload = composerSchemaJson.getAutoload();
+        if (autoload == null) {
+            return;
+        }
+
+        Map<String, List<String>> psr4 = autoload.getPsr4();
+        if (psr4 != null) {
+            PSR4ClassFileResolver psr4ClassFileResolver = new PSR4ClassFileResolver();
+            for (Map.Entry<String, List<String>> entry : psr4.entrySet()) {
+                for (String directory : entry.getValue()) {
+                    psr4ClassFileResolver.addNamespace(entry.getKey(), directory);
+                }
+            }
+            classFileResolver.addResolver(psr4ClassFileResolver);
+        }
+
+        Map<String, List<String>> psr0 = autoload.getPsr0();
+        if (psr0 != null) {
+            PSR0ClassFileResolver psr0ClassFileResolver = new PSR0ClassFileResolver();
+            for (Map.Entry<String, List<String>> entry : psr0.entrySet()) {
+                for (String directory : entry.getValue()) {
+                    psr0ClassFileResolver.addNamespace(entry.getKey(), directory);
+                }
+            }
+            classFileResolver.addResolver(psr0ClassFileResolver);
+        }
+        // TODO: classmap?
+
+    }
+
+    /**
+     * Definition that reference candidates with a given ident resolve to and file that made it
+     */
+    private static class Resolution {
+
+        final String file;
+        final DefKey defKey;
+
+        Resolution(String file, DefKey defKey) {
+            this.file = file;
+            this.defKey = defKey;
+        }
+    }
+
+    /**
+     * Symbols contributed by a single file, kept in graph cache
+     */
+    private static class Symbols {
+        Collection<ClassInfo> classes = new ArrayList<>();
+        Collection<String> functions = new ArrayList<>();
+        Map<String, String> resolutions = new HashMap<>();
+        Map<String, VarInfo> globals = new HashMap<>();
+    }
 }
\ No newline at end of file
@@ -1,20 +1,23 @@
-package com.sourcegraph.toolchain.php;
-
-/**
- * Variable information
- */
-class VarInfo {
-
-    String type;
-    boolean local;
-
-    VarInfo(String type) {
-        this(type, true);
-    }
-
-    VarInfo(String type, boolean local) {
-        this.type = type;
-        this.local = local;
-    }
-
+package com.sourcegraph.toolchain.php;
+
+/**
+ * Variable information
+ */
+class VarInfo {
+
+    /**
+     * may be updated by one graphing worker and read by another one (global variables)
+     */
+    volatile String type;
+    boolean local;
+
+    VarInfo(String type) {
+        this(type, true);
+    }
+
+    VarInfo(String type, boolean local) {
+        this.type = type;
+        this.local = local;
+    }
+
 }
\ No newline at end of file
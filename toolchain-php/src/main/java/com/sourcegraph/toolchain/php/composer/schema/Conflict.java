@@ -1,21 +1,21 @@
-
-package com.sourcegraph.toolchain.php.composer.schema;
-
-import javax.annotation.Generated;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
-
-/**
- * This is a hash of package name (keys) and version constraints (values) that conflict with this package.
- * 
- */
-@Generated("org.jsonschema2pojo")
-public class Conflict {
-
-
-    @Override
-    public String toString() {
-        return ToStringBuilder.reflectionToString(this);
-    }
-
-}
+
+package com.sourcegraph.toolchain.php.composer.schema;
+
+import javax.annotation.Generated;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+
+/**
+ * This is a hash of package name (keys) and version constraints (values) that conflict with this package.
+ * 
+ */
+@Generated("org.jsonschema2pojo")
+public class Conflict {
+
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+
+}
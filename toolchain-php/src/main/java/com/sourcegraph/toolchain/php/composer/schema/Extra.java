@@ -1,21 +1,21 @@
-
-package com.sourcegraph.toolchain.php.composer.schema;
-
-import javax.annotation.Generated;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
-
-/**
- * Arbitrary extra data that can be used by plugins, for example, package of type composer-plugin may have a 'class' key defining an installer class name.
- * 
- */
-@Generated("org.jsonschema2pojo")
-public class Extra {
-
-
-    @Override
-    public String toString() {
-        return ToStringBuilder.reflectionToString(this);
-    }
-
-}
+
+package com.sourcegraph.toolchain.php.composer.schema;
+
+import javax.annotation.Generated;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+
+/**
+ * Arbitrary extra data that can be used by plugins, for example, package of type composer-plugin may have a 'class' key defining an installer class name.
+ * 
+ */
+@Generated("org.jsonschema2pojo")
+public class Extra {
+
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+
+}
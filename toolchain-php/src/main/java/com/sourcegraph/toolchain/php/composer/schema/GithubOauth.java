@@ -1,21 +1,21 @@
-
-package com.sourcegraph.toolchain.php.composer.schema;
-
-import javax.annotation.Generated;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
-
-/**
- * A hash of domain name => github API oauth tokens, typically {"github.com":"<token>"}.
- * 
- */
-@Generated("org.jsonschema2pojo")
-public class GithubOauth {
-
-
-    @Override
-    public String toString() {
-        return ToStringBuilder.reflectionToString(this);
-    }
-
-}
+
+package com.sourcegraph.toolchain.php.composer.schema;
+
+import javax.annotation.Generated;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+
+/**
+ * A hash of domain name => github API oauth tokens, typically {"github.com":"<token>"}.
+ * 
+ */
+@Generated("org.jsonschema2pojo")
+public class GithubOauth {
+
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+
+}
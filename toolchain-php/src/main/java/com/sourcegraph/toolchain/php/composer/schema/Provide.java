@@ -1,21 +1,21 @@
-
-package com.sourcegraph.toolchain.php.composer.schema;
-
-import javax.annotation.Generated;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
-
-/**
- * This is a hash of package name (keys) and version constraints (values) that this package provides in addition to this package's name.
- * 
- */
-@Generated("org.jsonschema2pojo")
-public class Provide {
-
-
-    @Override
-    public String toString() {
-        return ToStringBuilder.reflectionToString(this);
-    }
-
-}
+
+package com.sourcegraph.toolchain.php.composer.schema;
+
+import javax.annotation.Generated;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+
+/**
+ * This is a hash of package name (keys) and version constraints (values) that this package provides in addition to this package's name.
+ * 
+ */
+@Generated("org.jsonschema2pojo")
+public class Provide {
+
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+
+}
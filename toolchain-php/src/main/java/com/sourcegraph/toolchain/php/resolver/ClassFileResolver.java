@@ -1,8 +1,8 @@
-package com.sourcegraph.toolchain.php.resolver;
-
-import java.io.File;
-
-public interface ClassFileResolver {
-
-    File resolve(String fullyQualifiedClassName);
+package com.sourcegraph.toolchain.php.resolver;
+
+import java.io.File;
+
+public interface ClassFileResolver {
+
+    File resolve(String fullyQualifiedClassName);
 }
\ No newline at end of file
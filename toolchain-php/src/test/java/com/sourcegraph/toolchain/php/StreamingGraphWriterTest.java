@@ -0,0 +1,83 @@
+package com.sourcegraph.toolchain.php;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.sourcegraph.toolchain.core.GraphData;
+import com.sourcegraph.toolchain.core.GraphWriter;
+import com.sourcegraph.toolchain.core.StreamingGraphWriter;
+import com.sourcegraph.toolchain.core.objects.Def;
+import com.sourcegraph.toolchain.core.objects.SourceUnit;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Streaming graph writer should produce the same definitions as in-memory one, including data that PHP listener
+ * fills in after emitting method definitions
+ */
+public class StreamingGraphWriterTest {
+
+    private static final String SOURCE = "<?php\n" +
+            "namespace Foo;\n" +
+            "class A {\n" +
+            "    const X = 1;\n" +
+            "    public $p;\n" +
+            "    public function bar($x, $y) { return $this->baz($x); }\n" +
+            "    private function baz($z) { return $z; }\n" +
+            "}\n";
+
+    private final Gson gson = new GsonBuilder().registerTypeAdapterFactory(Def.JSONAdapter.FACTORY).create();
+
+    private final JsonParser parser = new JsonParser();
+
+    @Test
+    public void writesSameDefsAsGraphData() throws IOException {
+        File dir = Files.createTempDirectory("srclib-test").toFile();
+        try {
+            File file = new File(dir, "A.php");
+            FileUtils.write(file, SOURCE, StandardCharsets.UTF_8);
+
+            GraphData data = new GraphData();
+            graph(new LanguageImpl(), file, data);
+            Set<JsonElement> expected = new HashSet<>();
+            for (Def def : data.getDefs()) {
+                // parsed back, so that numbers compare equal to the ones read from streamed output
+                expected.add(parser.parse(gson.toJson(def)));
+            }
+
+            StringWriter out = new StringWriter();
+            LanguageImpl language = new LanguageImpl();
+            graph(language, file, new StreamingGraphWriter(language, out));
+            Set<JsonElement> actual = new HashSet<>();
+            for (JsonElement def : parser.parse(out.toString()).getAsJsonObject().getAsJsonArray("Defs")) {
+                actual.add(def);
+            }
+
+            assertEquals(expected, actual);
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    private static void graph(LanguageImpl language, File file, GraphWriter writer) {
+        SourceUnit unit = new SourceUnit();
+        unit.Name = "test";
+        unit.Dir = file.getParent();
+        unit.Files.add(file.getPath());
+        language.setSourceUnit(unit);
+        language.setGraphWriter(writer);
+        language.graph();
+        writer.flush();
+    }
+}